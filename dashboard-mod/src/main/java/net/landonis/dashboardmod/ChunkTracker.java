@@ -1,10 +1,12 @@
 package net.landonis.dashboardmod;
 
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
+import net.minecraft.world.World;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -12,7 +14,7 @@ import java.util.UUID;
 
 public class ChunkTracker {
 
-    private static final Map<UUID, ChunkPos> lastChunks = new HashMap<>();
+    private static final Map<UUID, RegionManager.ClaimLocation> lastChunks = new HashMap<>();
 
     public static void register() {
         ServerTickEvents.END_SERVER_TICK.register(server -> {
@@ -21,13 +23,14 @@ public class ChunkTracker {
 
                 if (!RegionCommandHandler.isTrackingClaimInfo(uuid)) continue;
 
+                RegistryKey<World> world = player.getWorld().getRegistryKey();
                 ChunkPos currentChunk = player.getChunkPos();
-                ChunkPos lastChunk = lastChunks.get(uuid);
+                RegionManager.ClaimLocation lastChunk = lastChunks.get(uuid);
 
-                if (!currentChunk.equals(lastChunk)) {
-                    lastChunks.put(uuid, currentChunk);
+                if (lastChunk == null || lastChunk.dimension() != world || !currentChunk.equals(lastChunk.pos())) {
+                    lastChunks.put(uuid, new RegionManager.ClaimLocation(world, currentChunk));
 
-                    String owner = RegionManager.getChunkOwner(currentChunk);
+                    String owner = RegionManager.getChunkOwner(world, currentChunk);
                     if (owner == null) {
                         player.sendMessage(Text.literal("Chunk unclaimed.").formatted(Formatting.GRAY), false);
                     } else {
@@ -41,11 +44,11 @@ public class ChunkTracker {
     }
 
     // Optional utility methods if needed later
-    public static ChunkPos getLastKnownChunk(UUID uuid) {
+    public static RegionManager.ClaimLocation getLastKnownChunk(UUID uuid) {
         return lastChunks.get(uuid);
     }
 
-    public static void updateLastKnownChunk(UUID uuid, ChunkPos newChunk) {
-        lastChunks.put(uuid, newChunk);
+    public static void updateLastKnownChunk(UUID uuid, RegistryKey<World> world, ChunkPos newChunk) {
+        lastChunks.put(uuid, new RegionManager.ClaimLocation(world, newChunk));
     }
 }
@@ -0,0 +1,289 @@
+package net.landonis.dashboardmod;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash map from packed chunk coordinates (see {@code ChunkPos.toLong})
+ * to claim values. Keys are stored as primitive longs so lookups never allocate.
+ *
+ * Writers are serialized through a {@link StampedLock}; readers (the protection
+ * callbacks on the server thread, the dashboard socket thread) use optimistic reads
+ * and only fall back to the read lock when a write raced with them.
+ *
+ * Most lookups are for unclaimed wilderness, so a {@link ClaimOccupancy} summary is
+ * checked before the table is probed and answers those misses from a single bit.
+ */
+public class ClaimIndex<V> {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final StampedLock lock = new StampedLock();
+    private final ClaimOccupancy occupancy = new ClaimOccupancy();
+    private Table table;
+    private int size;
+
+    public ClaimIndex() {
+        this(MIN_CAPACITY);
+    }
+
+    public ClaimIndex(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    /**
+     * Visitor used by {@link #forEach(Visitor)} so iteration does not box keys.
+     */
+    public interface Visitor<V> {
+        void visit(long packedPos, V value);
+    }
+
+    // ===== Reads =====
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            Object found = occupancy.mightContain(key) ? probe(table, key) : null;
+            if (lock.validate(stamp)) {
+                return (V) found;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return occupancy.mightContain(key) ? (V) probe(table, key) : null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int result = size;
+        if (lock.validate(stamp)) return result;
+        stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Visits every entry while holding the read lock. Writers wait until the visit completes,
+     * so the visitor must not call back into this index with a mutation.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Visitor<? super V> visitor) {
+        long stamp = lock.readLock();
+        try {
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value != null) {
+                    visitor.visit(keys[i], (V) value);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // ===== Writes =====
+
+    /**
+     * Associates the value with the key, returning the previous value or null.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) throw new IllegalArgumentException("null claim values are not supported");
+        long stamp = lock.writeLock();
+        try {
+            int slot = findSlot(table, key);
+            Object previous = table.values[slot];
+            if (previous != null) {
+                table.values[slot] = value;
+                return (V) previous;
+            }
+            insertNew(key, value);
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Inserts the value only when the key is absent. Returns the existing value, or null if inserted.
+     */
+    @SuppressWarnings("unchecked")
+    public V putIfAbsent(long key, V value) {
+        if (value == null) throw new IllegalArgumentException("null claim values are not supported");
+        long stamp = lock.writeLock();
+        try {
+            int slot = findSlot(table, key);
+            Object existing = table.values[slot];
+            if (existing != null) {
+                return (V) existing;
+            }
+            insertNew(key, value);
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = findSlot(table, key);
+            Object previous = table.values[slot];
+            if (previous == null) return null;
+            deleteSlot(slot);
+            return (V) previous;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the entry only if it is currently mapped to {@code expected} (identity comparison).
+     */
+    public boolean remove(long key, V expected) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = findSlot(table, key);
+            if (table.values[slot] != expected || expected == null) return false;
+            deleteSlot(slot);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            table = new Table(MIN_CAPACITY);
+            occupancy.clear();
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ===== Internals =====
+
+    private static final class Table {
+        final long[] keys;
+        final Object[] values; // null marks an empty slot
+        final int mask;
+        final int resizeAt;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+            this.resizeAt = (int) (capacity * LOAD_FACTOR);
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR);
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed) capacity <<= 1;
+        return capacity;
+    }
+
+    /**
+     * Lock-free probe. Bounded by the table length so a torn optimistic read cannot spin forever.
+     */
+    private static Object probe(Table t, long key) {
+        long[] keys = t.keys;
+        Object[] values = t.values;
+        int mask = t.mask;
+        int i = mix(key) & mask;
+        for (int n = 0; n <= mask; n++) {
+            Object value = values[i];
+            if (value == null) return null;
+            if (keys[i] == key) return value;
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /** Returns the slot holding the key, or the empty slot where it would be inserted. Write lock held. */
+    private static int findSlot(Table t, long key) {
+        int i = mix(key) & t.mask;
+        while (t.values[i] != null && t.keys[i] != key) {
+            i = (i + 1) & t.mask;
+        }
+        return i;
+    }
+
+    private void insertNew(long key, Object value) {
+        if (size + 1 > table.resizeAt) {
+            rehash(table.keys.length << 1);
+        }
+        int slot = findSlot(table, key);
+        table.keys[slot] = key;
+        table.values[slot] = value;
+        occupancy.add(key);
+        size++;
+    }
+
+    private void rehash(int newCapacity) {
+        Table old = table;
+        Table grown = new Table(newCapacity);
+        for (int i = 0; i < old.values.length; i++) {
+            Object value = old.values[i];
+            if (value != null) {
+                int slot = findSlot(grown, old.keys[i]);
+                grown.keys[slot] = old.keys[i];
+                grown.values[slot] = value;
+            }
+        }
+        table = grown;
+    }
+
+    /** Backward-shift deletion keeps probe chains intact without tombstones. Write lock held. */
+    private void deleteSlot(int slot) {
+        long[] keys = table.keys;
+        Object[] values = table.values;
+        int mask = table.mask;
+        int hole = slot;
+        int i = slot;
+        occupancy.remove(keys[hole]);
+        values[hole] = null;
+        while (true) {
+            i = (i + 1) & mask;
+            Object value = values[i];
+            if (value == null) break;
+            int home = mix(keys[i]) & mask;
+            boolean movable = hole <= i
+                    ? (home <= hole || home > i)
+                    : (home <= hole && home > i);
+            if (movable) {
+                keys[hole] = keys[i];
+                values[hole] = value;
+                values[i] = null;
+                hole = i;
+            }
+        }
+        size--;
+    }
+}
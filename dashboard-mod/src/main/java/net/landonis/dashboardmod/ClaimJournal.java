@@ -0,0 +1,374 @@
+package net.landonis.dashboardmod;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only journal of claim mutations.
+ *
+ * Every claim, unclaim and trust change is appended as a small binary record, so a
+ * mutation costs O(1) regardless of how many claims exist. A background thread flushes
+ * the journal every second and periodically compacts it into a fresh snapshot. On startup
+ * {@link RegionManager#loadClaims()} loads the snapshot and replays the journal on top.
+ *
+ * Records describe absolute state ("chunk is claimed by X", "X is trusted"), so replaying a
+ * journal over a snapshot that already contains some of its records still converges on the
+ * latest state. Writers append a record and update the claims under one mutation lock, and
+ * compaction holds that lock only while it rotates the journal and copies the claims, so every
+ * record in the rotated journal is in the copy. Encoding and writing the snapshot happen after
+ * the lock is released.
+ */
+public class ClaimJournal {
+    private static final int MAGIC = 0x444D434A; // "DMCJ"
+    private static final byte VERSION = 1;
+
+    static final byte OP_CLAIM_PLAYER = 1;
+    static final byte OP_CLAIM_GROUP = 2;
+    static final byte OP_UNCLAIM = 3;
+    static final byte OP_TRUST = 4;
+    static final byte OP_UNTRUST = 5;
+
+    private static final long FLUSH_INTERVAL_MS = 1_000;
+    private static final long COMPACT_INTERVAL_MS = 300_000; // 5 minutes
+    private static final int COMPACT_RECORD_THRESHOLD = 50_000;
+
+    private final File journalFile;
+    private final File rotatedFile;
+    private final Object mutationLock;
+    private final SnapshotWriter snapshotWriter;
+
+    private FileOutputStream fileOut;
+    private DataOutputStream out;
+    private long recordsSinceCompaction = 0;
+    private boolean dirty = false;
+    private ScheduledExecutorService executor;
+
+    /**
+     * Copies the current claims. Called with the mutation lock held, so it must only copy.
+     */
+    interface SnapshotWriter {
+        PendingSnapshot capture();
+    }
+
+    /**
+     * Persists a copy taken by {@link SnapshotWriter#capture()}. Must throw if the snapshot was not
+     * persisted, since the rotated journal is deleted once it returns.
+     */
+    interface PendingSnapshot {
+        void write() throws IOException;
+    }
+
+    /**
+     * Receives replayed records. Implemented by RegionManager to rebuild its indexes.
+     */
+    interface Replayer {
+        void claimPlayer(String dimension, long packedPos, UUID owner);
+        void claimGroup(String dimension, long packedPos, String group);
+        void unclaim(String dimension, long packedPos);
+        void trust(String dimension, long packedPos, UUID player);
+        void untrust(String dimension, long packedPos, UUID player);
+    }
+
+    /**
+     * @param journalFile    the live journal file
+     * @param mutationLock   held by writers while they append a record and apply it; always taken before this journal
+     * @param snapshotWriter copies the current claims; called off-thread during compaction
+     */
+    public ClaimJournal(File journalFile, Object mutationLock, SnapshotWriter snapshotWriter) {
+        this.journalFile = journalFile;
+        this.rotatedFile = new File(journalFile.getPath() + ".old");
+        this.mutationLock = mutationLock;
+        this.snapshotWriter = snapshotWriter;
+    }
+
+    // ===== Lifecycle =====
+
+    /**
+     * Replays any journal left over from the last run, then opens the journal for appending
+     * and starts the background flush/compaction thread.
+     */
+    public void open(Replayer replayer) {
+        // A rotated journal only exists if the server died mid-compaction; it precedes the live one.
+        // Replayed outside this journal's lock, since the replayer takes the mutation lock
+        replayFile(rotatedFile, replayer);
+        replayFile(journalFile, replayer);
+
+        synchronized (this) {
+            try {
+                openStream();
+            } catch (IOException e) {
+                System.err.println("[DashboardMod] Failed to open claim journal, claims cannot be changed until it opens: "
+                        + e.getMessage());
+            }
+
+            if (executor == null) {
+                executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "DashboardMod-ClaimJournal");
+                    t.setDaemon(true);
+                    return t;
+                });
+                executor.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                executor.scheduleWithFixedDelay(this::compactIfNeeded, COMPACT_INTERVAL_MS, COMPACT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Flushes and syncs the journal. Shutdown only has to persist the unflushed tail, not every claim.
+     */
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        synchronized (this) {
+            if (out == null) return;
+            try {
+                out.flush();
+                fileOut.getChannel().force(false);
+                out.close();
+            } catch (IOException e) {
+                System.err.println("[DashboardMod] Failed to close claim journal: " + e.getMessage());
+            }
+            out = null;
+            fileOut = null;
+        }
+    }
+
+    // ===== Appending =====
+
+    public void claimPlayer(String dimension, long packedPos, UUID owner) {
+        append(OP_CLAIM_PLAYER, dimension, packedPos, owner, null);
+    }
+
+    public void claimGroup(String dimension, long packedPos, String group) {
+        append(OP_CLAIM_GROUP, dimension, packedPos, null, group);
+    }
+
+    public void unclaim(String dimension, long packedPos) {
+        append(OP_UNCLAIM, dimension, packedPos, null, null);
+    }
+
+    public void trust(String dimension, long packedPos, UUID player) {
+        append(OP_TRUST, dimension, packedPos, player, null);
+    }
+
+    public void untrust(String dimension, long packedPos, UUID player) {
+        append(OP_UNTRUST, dimension, packedPos, player, null);
+    }
+
+    /**
+     * @throws IllegalStateException if the journal is not open, e.g. before the server has started
+     * @throws UncheckedIOException  if the record could not be written
+     */
+    private synchronized void append(byte op, String dimension, long packedPos, UUID uuid, String group) {
+        if (out == null) throw new IllegalStateException("Claim journal " + journalFile.getName() + " is not open");
+        try {
+            out.writeByte(op);
+            out.writeUTF(dimension);
+            out.writeLong(packedPos);
+            if (uuid != null) {
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+            if (group != null) {
+                out.writeUTF(group);
+            }
+            recordsSinceCompaction++;
+            dirty = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to claim journal " + journalFile.getName(), e);
+        }
+    }
+
+    // ===== Background work =====
+
+    private void flushQuietly() {
+        FileChannel channel;
+        synchronized (this) {
+            if (out == null || !dirty) return;
+            try {
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("[DashboardMod] Failed to flush claim journal: " + e.getMessage());
+                return;
+            }
+            channel = fileOut.getChannel();
+            dirty = false;
+        }
+        // fsync outside the lock so the server thread never waits on the disk
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            // Channel was closed by a concurrent rotation or shutdown, which syncs on its own
+        }
+    }
+
+    private void compactIfNeeded() {
+        synchronized (this) {
+            if (recordsSinceCompaction == 0) return;
+        }
+        compact();
+    }
+
+    /**
+     * Rotates the journal, writes a snapshot of the live claims and then drops the rotated journal.
+     * Mutations made while the snapshot is being written land in the new journal.
+     */
+    public void compact() {
+        PendingSnapshot snapshot;
+        // Rotation and copy are one step for writers: a record that reaches the rotated journal is
+        // already applied to the claims being copied, and every later one goes to the new journal
+        synchronized (mutationLock) {
+            synchronized (this) {
+                if (out == null) return;
+                try {
+                    out.flush();
+                    fileOut.getChannel().force(false);
+                    out.close();
+                    // If an older rotation is still around, keep appending to the live file instead
+                    if (!rotatedFile.exists()) {
+                        Files.move(journalFile.toPath(), rotatedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                    }
+                    openStream();
+                    recordsSinceCompaction = 0;
+                } catch (IOException e) {
+                    System.err.println("[DashboardMod] Failed to rotate claim journal: " + e.getMessage());
+                    try {
+                        openStream();
+                    } catch (IOException reopen) {
+                        System.err.println("[DashboardMod] Claim journal unavailable: " + reopen.getMessage());
+                        out = null;
+                    }
+                    return;
+                }
+            }
+            snapshot = snapshotWriter.capture();
+        }
+
+        try {
+            snapshot.write();
+            Files.deleteIfExists(rotatedFile.toPath());
+        } catch (Exception e) {
+            System.err.println("[DashboardMod] Claim journal compaction failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compacts early once the journal grows large, so replay time stays bounded.
+     */
+    public void compactSoonIfLarge() {
+        boolean large;
+        synchronized (this) {
+            large = recordsSinceCompaction >= COMPACT_RECORD_THRESHOLD;
+            if (large) recordsSinceCompaction = 0;
+        }
+        if (large && executor != null) {
+            executor.execute(this::compact);
+        }
+    }
+
+    // ===== Internals =====
+
+    private void openStream() throws IOException {
+        journalFile.getParentFile().mkdirs();
+        boolean fresh = !journalFile.exists() || journalFile.length() == 0;
+        fileOut = new FileOutputStream(journalFile, true);
+        out = new DataOutputStream(new BufferedOutputStream(fileOut, 64 * 1024));
+        if (fresh) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+        }
+    }
+
+    private void replayFile(File file, Replayer replayer) {
+        if (!file.exists()) return;
+
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            System.err.println("[DashboardMod] Failed to read claim journal " + file.getName() + ": " + e.getMessage());
+            return;
+        }
+        if (bytes.length == 0) return;
+
+        ByteArrayInputStream buffer = new ByteArrayInputStream(bytes);
+        DataInputStream in = new DataInputStream(buffer);
+        int validLength = 0;
+        int replayed = 0;
+        try {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                // Appending after bytes we cannot read would lose every new record on the next start too
+                File aside = moveAside(file);
+                if (aside != null) {
+                    System.err.println("[DashboardMod] Claim journal " + file.getName() + " has an unknown format; moved it to "
+                            + aside.getName() + " and starting a new journal");
+                } else {
+                    System.err.println("[DashboardMod] Claim journal " + file.getName() + " has an unknown format and could not be"
+                            + " moved aside; discarding it and starting a new journal");
+                    truncate(file, 0);
+                }
+                return;
+            }
+            validLength = bytes.length - buffer.available();
+
+            while (buffer.available() > 0) {
+                byte op = in.readByte();
+                String dimension = in.readUTF();
+                long packed = in.readLong();
+                switch (op) {
+                    case OP_CLAIM_PLAYER -> replayer.claimPlayer(dimension, packed, new UUID(in.readLong(), in.readLong()));
+                    case OP_CLAIM_GROUP -> replayer.claimGroup(dimension, packed, in.readUTF());
+                    case OP_UNCLAIM -> replayer.unclaim(dimension, packed);
+                    case OP_TRUST -> replayer.trust(dimension, packed, new UUID(in.readLong(), in.readLong()));
+                    case OP_UNTRUST -> replayer.untrust(dimension, packed, new UUID(in.readLong(), in.readLong()));
+                    default -> throw new IOException("unknown record type " + op);
+                }
+                validLength = bytes.length - buffer.available();
+                replayed++;
+            }
+        } catch (IOException e) {
+            // A torn record at the tail means the server died mid-write; everything before it is intact
+            System.err.println("[DashboardMod] Claim journal " + file.getName() + " truncated after "
+                    + replayed + " records: " + e.getMessage());
+            truncate(file, validLength);
+        }
+
+        if (replayed > 0) {
+            System.out.println("[DashboardMod] Replayed " + replayed + " claim journal records from " + file.getName());
+        }
+    }
+
+    /**
+     * Renames a file that cannot be read to {@code <name>.corrupt}, or {@code <name>.corrupt.<millis>} if
+     * that is taken, so it survives for manual recovery. Returns the new file, or null if the rename failed.
+     */
+    static File moveAside(File file) {
+        File aside = new File(file.getPath() + ".corrupt");
+        if (aside.exists()) {
+            aside = new File(aside.getPath() + "." + System.currentTimeMillis());
+        }
+        try {
+            Files.move(file.toPath(), aside.toPath());
+            return aside;
+        } catch (IOException e) {
+            System.err.println("[DashboardMod] Failed to move " + file.getName() + " aside: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void truncate(File file, long length) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length);
+        } catch (IOException e) {
+            System.err.println("[DashboardMod] Failed to truncate claim journal: " + e.getMessage());
+        }
+    }
+}
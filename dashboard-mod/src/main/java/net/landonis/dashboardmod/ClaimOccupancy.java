@@ -0,0 +1,58 @@
+package net.landonis.dashboardmod;
+
+import java.util.Arrays;
+
+/**
+ * Coarse summary of which 32x32-chunk regions contain at least one claim.
+ *
+ * Regions are hashed into a counting bloom-style table: {@link #bits} is the summary that
+ * lookups test (8 KB, one cache line per query), {@link #counts} tracks how many claimed
+ * chunks fall into each bucket so the bit can be cleared again when the last one is unclaimed.
+ * A clear bit means the chunk is definitely unclaimed; a set bit means "go ask the index".
+ *
+ * Not thread-safe on its own: {@link ClaimIndex} mutates it under its write lock and reads it
+ * inside the same optimistic-read section as the hash probe.
+ */
+public class ClaimOccupancy {
+    private static final int REGION_SHIFT = 5; // 32x32 chunks, same as a region file
+    private static final int BUCKET_BITS = 16;
+    private static final int BUCKET_MASK = (1 << BUCKET_BITS) - 1;
+
+    private final long[] bits = new long[(1 << BUCKET_BITS) >>> 6];
+    private final int[] counts = new int[1 << BUCKET_BITS];
+
+    /**
+     * Returns false only if no claimed chunk shares this chunk's region bucket.
+     */
+    public boolean mightContain(long packedChunkPos) {
+        int bucket = bucket(packedChunkPos);
+        return (bits[bucket >>> 6] & (1L << bucket)) != 0;
+    }
+
+    public void add(long packedChunkPos) {
+        int bucket = bucket(packedChunkPos);
+        if (counts[bucket]++ == 0) {
+            bits[bucket >>> 6] |= 1L << bucket;
+        }
+    }
+
+    public void remove(long packedChunkPos) {
+        int bucket = bucket(packedChunkPos);
+        if (counts[bucket] > 0 && --counts[bucket] == 0) {
+            bits[bucket >>> 6] &= ~(1L << bucket);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(bits, 0L);
+        Arrays.fill(counts, 0);
+    }
+
+    private static int bucket(long packedChunkPos) {
+        // ChunkPos.toLong packs x in the low 32 bits and z in the high 32 bits
+        long regionX = (int) packedChunkPos >> REGION_SHIFT;
+        long regionZ = (int) (packedChunkPos >>> 32) >> REGION_SHIFT;
+        long h = ((regionX & 0xFFFFFFFFL) | (regionZ << 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> (64 - BUCKET_BITS)) & BUCKET_MASK;
+    }
+}
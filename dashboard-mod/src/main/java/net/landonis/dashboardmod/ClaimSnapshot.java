@@ -0,0 +1,196 @@
+package net.landonis.dashboardmod;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Versioned binary snapshot of every claim, written during journal compaction.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   int    magic "DMCS"
+ *   int    version
+ *   int    dimension count, then each dimension id as (u16 length, UTF-8 bytes)
+ *   int    player count, then each UUID as (long msb, long lsb)   -- owners and trusted players
+ *   int    group count, then each group name as (u16 length, UTF-8 bytes)
+ *   int    shard count, then per shard:
+ *            int dimension index
+ *            int claim count, then per claim:
+ *              long packed chunk pos
+ *              int  owner ref (>= 0 player index, < 0 is -(group index + 1))
+ *              u16  trusted count, then that many int player indices
+ * </pre>
+ *
+ * Loading maps the file read-only and decodes straight from the mapped buffer, so nothing
+ * proportional to the file size is materialized besides the claims themselves. Owners and
+ * trusted players resolve to shared UUID instances from the dictionary.
+ */
+public class ClaimSnapshot {
+    private static final int MAGIC = 0x444D4353; // "DMCS"
+    private static final int VERSION = 1;
+
+    /**
+     * One claim as it is written to or read from a snapshot. Exactly one of owner/group is set.
+     */
+    public record Entry(String dimension, long packedPos, UUID owner, String group, UUID[] trusted) {}
+
+    /**
+     * Receives claims decoded from a snapshot.
+     */
+    public interface Sink {
+        void accept(String dimension, long packedPos, UUID owner, String group, UUID[] trusted);
+    }
+
+    // ===== Writing =====
+
+    /**
+     * Writes the entries to a temp file and atomically moves it over the target.
+     */
+    public static void write(File file, List<Entry> entries) throws IOException {
+        Map<String, Integer> dimensions = new LinkedHashMap<>();
+        Map<UUID, Integer> players = new LinkedHashMap<>();
+        Map<String, Integer> groups = new LinkedHashMap<>();
+        Map<Integer, List<Entry>> shards = new LinkedHashMap<>();
+
+        for (Entry entry : entries) {
+            int dim = dimensions.computeIfAbsent(entry.dimension(), k -> dimensions.size());
+            shards.computeIfAbsent(dim, k -> new ArrayList<>()).add(entry);
+            if (entry.owner() != null) {
+                players.computeIfAbsent(entry.owner(), k -> players.size());
+            } else {
+                groups.computeIfAbsent(entry.group(), k -> groups.size());
+            }
+            for (UUID trusted : entry.trusted()) {
+                players.computeIfAbsent(trusted, k -> players.size());
+            }
+        }
+
+        file.getParentFile().mkdirs();
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 256 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(dimensions.size());
+            for (String dimension : dimensions.keySet()) {
+                writeString(out, dimension);
+            }
+
+            out.writeInt(players.size());
+            for (UUID uuid : players.keySet()) {
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+
+            out.writeInt(groups.size());
+            for (String group : groups.keySet()) {
+                writeString(out, group);
+            }
+
+            out.writeInt(shards.size());
+            for (Map.Entry<Integer, List<Entry>> shard : shards.entrySet()) {
+                out.writeInt(shard.getKey());
+                out.writeInt(shard.getValue().size());
+                for (Entry entry : shard.getValue()) {
+                    out.writeLong(entry.packedPos());
+                    out.writeInt(entry.owner() != null
+                            ? players.get(entry.owner())
+                            : -(groups.get(entry.group()) + 1));
+                    UUID[] trusted = entry.trusted();
+                    out.writeShort(Math.min(trusted.length, 0xFFFF));
+                    for (int i = 0; i < trusted.length && i < 0xFFFF; i++) {
+                        out.writeInt(players.get(trusted[i]));
+                    }
+                }
+            }
+
+            out.flush();
+            fileOut.getChannel().force(false);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) throw new IOException("string too long for snapshot: " + value.length() + " chars");
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    // ===== Reading =====
+
+    /**
+     * Maps the snapshot and streams every claim into the sink. Returns the number of claims read.
+     *
+     * @throws IOException if the file is truncated, corrupt or of an unknown version
+     */
+    public static int read(File file, Sink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                return decode(buffer, sink);
+            } catch (RuntimeException e) {
+                // BufferUnderflowException / IndexOutOfBoundsException from a truncated or corrupt file
+                throw new IOException("corrupt claim snapshot " + file.getName() + ": " + e, e);
+            }
+        }
+    }
+
+    private static int decode(ByteBuffer buffer, Sink sink) throws IOException {
+        if (buffer.getInt() != MAGIC) throw new IOException("not a claim snapshot");
+        int version = buffer.getInt();
+        if (version != VERSION) throw new IOException("unsupported claim snapshot version " + version);
+
+        String[] dimensions = new String[buffer.getInt()];
+        for (int i = 0; i < dimensions.length; i++) {
+            dimensions[i] = readString(buffer);
+        }
+
+        UUID[] players = new UUID[buffer.getInt()];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new UUID(buffer.getLong(), buffer.getLong());
+        }
+
+        String[] groups = new String[buffer.getInt()];
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = readString(buffer);
+        }
+
+        int total = 0;
+        int shardCount = buffer.getInt();
+        for (int s = 0; s < shardCount; s++) {
+            String dimension = dimensions[buffer.getInt()];
+            int claimCount = buffer.getInt();
+            for (int c = 0; c < claimCount; c++) {
+                long packed = buffer.getLong();
+                int ownerRef = buffer.getInt();
+                int trustCount = Short.toUnsignedInt(buffer.getShort());
+                UUID[] trusted = new UUID[trustCount];
+                for (int t = 0; t < trustCount; t++) {
+                    trusted[t] = players[buffer.getInt()];
+                }
+                if (ownerRef >= 0) {
+                    sink.accept(dimension, packed, players[ownerRef], null, trusted);
+                } else {
+                    sink.accept(dimension, packed, null, groups[-ownerRef - 1], trusted);
+                }
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -12,24 +12,18 @@ import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.ActionResult;
-import net.minecraft.util.math.ChunkPos;
-import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.block.Block;
 
-import java.util.UUID;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
-import net.landonis.dashboardmod.RegionManager.ClaimedChunk;
 import net.landonis.dashboardmod.anticheat.AntiCheatHelper;
+import net.landonis.dashboardmod.anticheat.BlockClassification;
 import net.landonis.dashboardmod.anticheat.AntiCheatCommands;
 
 public class DashboardMod implements ModInitializer {
 
-    private static final Map<UUID, Vec3d> previousPositions = new ConcurrentHashMap<>();
-
     @Override
     public void onInitialize() {
         System.out.println("[DashboardMod] Initializing with Region Protection and Enhanced AntiCheat...");
@@ -37,8 +31,7 @@ public class DashboardMod implements ModInitializer {
         // Initialize AntiCheat core
         AntiCheatHelper.initialize();
 
-        // Load region claims & commands
-        RegionManager.loadClaims();
+        // Region commands; claims are loaded on each server start
         RegionCommandHandler.registerCommands();
         ChunkTracker.register();
         GroupCommandHandler.register();
@@ -57,9 +50,7 @@ public class DashboardMod implements ModInitializer {
             }
 
             // Region protection
-            ChunkPos chunkPos = new ChunkPos(pos);
-            ClaimedChunk claim = RegionManager.getClaim(chunkPos);
-            if (claim != null && !RegionProtection.canPlayerBuild(serverPlayer.getUuid(), claim)) {
+            if (!RegionProtection.canPlayerBuildAt(serverPlayer.getUuid(), world.getRegistryKey(), pos)) {
                 serverPlayer.sendMessage(Text.literal("You can't break blocks in this claimed area.").formatted(Formatting.RED), false);
                 return false;
             }
@@ -78,15 +69,23 @@ public class DashboardMod implements ModInitializer {
             }
 
             // Region protection
-            ChunkPos chunkPos = new ChunkPos(hitResult.getBlockPos());
-            ClaimedChunk claim = RegionManager.getClaim(chunkPos);
-            if (claim != null && !RegionProtection.canPlayerBuild(serverPlayer.getUuid(), claim)) {
+            BlockPos targetPos = hitResult.getBlockPos();
+            if (!RegionProtection.canPlayerBuildAt(serverPlayer.getUuid(), world.getRegistryKey(), targetPos)) {
                 serverPlayer.sendMessage(Text.literal("You can't interact with blocks here.").formatted(Formatting.RED), false);
                 return ActionResult.FAIL;
             }
+
+            // Runs on the server thread between ticks, in packet order with the move packets. Block
+            // contexts are read when a move is captured, so moves captured after this packet re-read
+            // these blocks; the workers at the next tick start only see those captured snapshots
+            AntiCheatHelper.onBlockChanged(targetPos);
+            AntiCheatHelper.onBlockChanged(targetPos.offset(hitResult.getSide()));
             return ActionResult.PASS;
         });
 
+        // Keep the movement checks' cached block contexts in step with block changes
+        PlayerBlockBreakEvents.AFTER.register((world, player, pos, state, blockEntity) -> AntiCheatHelper.onBlockChanged(pos));
+
         // Attack block protection
         AttackBlockCallback.EVENT.register((player, world, hand, pos, direction) -> {
             if (world.isClient) return ActionResult.PASS;
@@ -127,53 +126,55 @@ public class DashboardMod implements ModInitializer {
         ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
             ServerPlayerEntity player = handler.getPlayer();
             player.sendMessage(Text.literal("§a[Region Protection] Welcome! Use /claim to protect your builds."), false);
-            previousPositions.put(player.getUuid(), player.getPos());
+            AntiCheatHelper.onPlayerJoin(player);
         });
 
         // Player disconnects
         ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
             ServerPlayerEntity player = handler.getPlayer();
             AntiCheatHelper.onPlayerDisconnect(player);
-            previousPositions.remove(player.getUuid());
+            RegionProtection.forgetPlayer(player.getUuid());
         });
 
-        // Server start/stop lifecycle
+        // Server start/stop lifecycle. Claims load before the server accepts commands, and again after
+        // a restart in the same JVM (the integrated server), since stopping closes the journal
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> RegionManager.loadClaims());
+
         ServerLifecycleEvents.SERVER_STARTED.register((MinecraftServer server) -> {
+            BlockClassification.build();
             GroupManager.load(server);
             RegionManager.setServer(server);
             DashboardWebSocketClient.connect(server);
+            AntiCheatHelper.start();
             DashboardWebSocketClient.setServerInstance(server);
             DashboardWebSocketClient.sendServerStatus();
             System.out.println("[DashboardMod] Server started with Enhanced AntiCheat protection active");
         });
 
         ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
-            RegionManager.saveClaims();
-            GroupManager.saveGroups();
+            AntiCheatHelper.shutdown();
+            RegionManager.shutdown();
+            GroupManager.shutdown();
             System.out.println("[DashboardMod] Server stopping - saved region data and enhanced anticheat cleanup complete");
         });
 
-        // Tick events for movement anti-cheat and maintenance
-        ServerTickEvents.END_SERVER_TICK.register(server -> {
-            if (server.getTicks() % 20 == 0) {
-                AntiCheatHelper.performMaintenance();
-            }
-            for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-                checkPlayerMovement(player);
-            }
+        // Tick events for movement anti-cheat and maintenance: moves are captured from the move
+        // packets handled between ticks, checked on worker threads while the tick runs, and their
+        // verdicts applied at the end of it
+        ServerTickEvents.START_SERVER_TICK.register(server -> {
+            AntiCheatHelper.onServerTickStart();
+            AntiCheatHelper.dispatchMovementChecks();
         });
-    }
 
-    private void checkPlayerMovement(ServerPlayerEntity player) {
-        Vec3d currentPos = player.getPos();
-        Vec3d previousPos = previousPositions.get(player.getUuid());
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            AntiCheatHelper.onServerTickEnd();
+            AntiCheatHelper.applyMovementVerdicts(server, this::handleMovementViolation);
+            AntiCheatHelper.performMaintenance();
 
-        if (previousPos != null) {
-            if (!AntiCheatHelper.validateMovement(player, previousPos, currentPos)) {
-                handleMovementViolation(player);
+            for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+                AntiCheatHelper.recordPose(player);
             }
-        }
-        previousPositions.put(player.getUuid(), currentPos);
+        });
     }
 
     private void handleMovementViolation(ServerPlayerEntity player) {
@@ -197,10 +198,12 @@ public class DashboardMod implements ModInitializer {
     public static String getPlayerViolationSummary(ServerPlayerEntity player) {
         int rateViolations = AntiCheatHelper.getRateViolations(player);
         int movementViolations = AntiCheatHelper.getMovementViolations(player);
+        int combatViolations = AntiCheatHelper.getCombatViolations(player);
         String enhancedStats = AntiCheatHelper.getPlayerStats(player);
+        String risk = AntiCheatHelper.getRiskSummary(player);
         
-        return String.format("§e%s: Rate violations: %d, Movement: %d\n§7Enhanced stats: %s",
-                player.getName().getString(), rateViolations, movementViolations, enhancedStats);
+        return String.format("§e%s: Rate violations: %d, Movement: %d, Combat: %d\n§7Enhanced stats: %s\n§7%s",
+                player.getName().getString(), rateViolations, movementViolations, combatViolations, enhancedStats, risk);
     }
 
     public static void resetPlayerViolations(ServerPlayerEntity player) {
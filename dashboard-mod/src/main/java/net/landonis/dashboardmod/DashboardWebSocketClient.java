@@ -11,9 +11,11 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import net.minecraft.text.Text;
+import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.Formatting;
+import net.minecraft.world.World;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonArray;
@@ -89,11 +91,12 @@ public class DashboardWebSocketClient {
         }
     }
 
-    public static void sendClaimUpdate(String player, ChunkPos pos, String action) {
+    public static void sendClaimUpdate(String player, RegistryKey<World> world, ChunkPos pos, String action) {
         if (isConnected && webSocket != null) {
             JsonObject message = new JsonObject();
             message.addProperty("type", "claim_update");
             message.addProperty("player", player);
+            message.addProperty("dimension", world.getValue().toString());
             message.addProperty("chunkX", pos.x);
             message.addProperty("chunkZ", pos.z);
             message.addProperty("action", action);
@@ -101,20 +104,47 @@ public class DashboardWebSocketClient {
         }
     }
 
+    public static void sendAntiCheatMode(String mode, String previousMode, double mspt) {
+        if (isConnected && webSocket != null) {
+            JsonObject message = new JsonObject();
+            message.addProperty("type", "anticheat_mode");
+            message.addProperty("mode", mode);
+            message.addProperty("previousMode", previousMode);
+            message.addProperty("mspt", mspt);
+            webSocket.sendText(message.toString(), true);
+        }
+    }
+
+    public static void sendViolation(String playerName, String playerUuid, String violationType,
+                                     String description, int total, long time) {
+        if (isConnected && webSocket != null) {
+            JsonObject message = new JsonObject();
+            message.addProperty("type", "anticheat_violation");
+            message.addProperty("player", playerName);
+            message.addProperty("uuid", playerUuid);
+            message.addProperty("violation", violationType);
+            message.addProperty("description", description);
+            message.addProperty("total", total);
+            message.addProperty("time", time);
+            webSocket.sendText(message.toString(), true);
+        }
+    }
+
     public static void sendClaimsData() {
         if (isConnected && webSocket != null) {
             JsonObject response = new JsonObject();
             response.addProperty("type", "claims_data");
             
             JsonObject claimsObj = new JsonObject();
-            Map<String, Set<ChunkPos>> allClaims = RegionManager.getAllClaims();
+            Map<String, Set<RegionManager.ClaimLocation>> allClaims = RegionManager.getAllClaims();
             
-            for (Map.Entry<String, Set<ChunkPos>> entry : allClaims.entrySet()) {
+            for (Map.Entry<String, Set<RegionManager.ClaimLocation>> entry : allClaims.entrySet()) {
                 JsonArray chunks = new JsonArray();
-                for (ChunkPos pos : entry.getValue()) {
+                for (RegionManager.ClaimLocation location : entry.getValue()) {
                     JsonObject chunk = new JsonObject();
-                    chunk.addProperty("x", pos.x);
-                    chunk.addProperty("z", pos.z);
+                    chunk.addProperty("dimension", location.dimensionId());
+                    chunk.addProperty("x", location.pos().x);
+                    chunk.addProperty("z", location.pos().z);
                     chunks.add(chunk);
                 }
                 claimsObj.add(entry.getKey(), chunks);
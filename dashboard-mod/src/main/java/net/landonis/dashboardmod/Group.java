@@ -1,91 +1,169 @@
 package net.landonis.dashboardmod;
 
+import com.google.gson.annotations.SerializedName;
+
 import java.util.*;
 
+/**
+ * Immutable snapshot of a group. Membership changes return a new instance which
+ * {@link GroupManager} swaps in, so any thread can read a Group without locking.
+ */
 public class Group {
-    public String name;
-    public UUID owner;
-    public Map<UUID, String> members = new HashMap<>(); // UUID → role
+    public final String name;
+    public final UUID owner;
+    public final Map<UUID, Role> members; // UUID → role, unmodifiable
+
+    /**
+     * Things a group member may do inside the group's claims. Each constant owns one bit of a role mask.
+     */
+    public enum Permission {
+        BUILD("build"),
+        CLAIM("claim"),
+        MANAGE_OWNER("manage_owner");
+
+        private final String id;
+        final int bit;
+
+        Permission(String id) {
+            this.id = id;
+            this.bit = 1 << ordinal();
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public static Permission fromId(String id) {
+            for (Permission permission : values()) {
+                if (permission.id.equals(id)) return permission;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Member roles. Serialized under their lowercase names so existing groups.json files keep loading.
+     */
+    public enum Role {
+        @SerializedName("owner") OWNER("owner", Permission.values()),
+        @SerializedName("admin") ADMIN("admin", Permission.BUILD, Permission.CLAIM), // admins can't override owner
+        @SerializedName("builder") BUILDER("builder", Permission.BUILD, Permission.CLAIM),
+        @SerializedName("member") MEMBER("member", Permission.BUILD),
+        @SerializedName("viewer") VIEWER("viewer");
 
+        private final String id;
+        private final int mask;
+
+        Role(String id, Permission... permissions) {
+            this.id = id;
+            int m = 0;
+            for (Permission permission : permissions) m |= permission.bit;
+            this.mask = m;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public boolean grants(Permission permission) {
+            return (mask & permission.bit) != 0;
+        }
+
+        public static Role fromId(String id) {
+            for (Role role : values()) {
+                if (role.id.equalsIgnoreCase(id)) return role;
+            }
+            return null;
+        }
+    }
 
     public Group(String name, UUID owner) {
+        this(name, owner, Map.of(owner, Role.OWNER));
+    }
+
+    Group(String name, UUID owner, Map<UUID, Role> members) {
         this.name = name;
         this.owner = owner;
-        this.members.put(owner, "owner");
+        this.members = Collections.unmodifiableMap(new HashMap<>(members));
     }
 
     public boolean isAdmin(UUID uuid) {
-        String role = members.get(uuid);
-        return "admin".equals(role) || isOwner(uuid);
+        return members.get(uuid) == Role.ADMIN || isOwner(uuid);
     }
     public boolean isOwner(UUID uuid) {
             return this.owner.equals(uuid);
     }
 
-    public boolean hasPermission(UUID uuid, String permission) {
-        String role = members.get(uuid);
-        if (role == null) return false;
-        switch (role) {
-            case "owner": return true;
-            case "admin":
-                return !permission.equals("manage_owner"); // admins can't override owner
-            case "builder":
-                return permission.equals("build") || permission.equals("claim");
-            case "member":
-                return permission.equals("build");
-            case "viewer":
-            default:
-                return false;
-        }
-    }
-
-    public void addMember(UUID uuid, String role) {
-        members.put(uuid, role);
+    public boolean hasPermission(UUID uuid, Permission permission) {
+        Role role = members.get(uuid);
+        return role != null && role.grants(permission);
     }
 
-    public void removeMember(UUID uuid) {
-        members.remove(uuid);
+    /**
+     * String form kept for callers that still pass permission ids; prefer {@link #hasPermission(UUID, Permission)}.
+     */
+    public boolean hasPermission(UUID uuid, String permission) {
+        Permission resolved = Permission.fromId(permission);
+        return resolved != null && hasPermission(uuid, resolved);
     }
 
     public boolean isMember(UUID uuid) {
         return members.containsKey(uuid);
     }
 
-    public String getRole(UUID uuid) {
+    public Role getRole(UUID uuid) {
         return members.get(uuid);
     }
     public boolean canPromote(UUID actor, UUID target) {
-        String actorRole = members.get(actor);
-        String targetRole = members.get(target);
-        return isOwner(actor) || ("admin".equals(actorRole) && !"owner".equals(targetRole));
-    }
-    
-    public void promote(UUID target) {
-        String current = members.getOrDefault(target, "member");
-        if ("member".equals(current)) {
-            members.put(target, "builder");
-        } else if ("builder".equals(current)) {
-            members.put(target, "admin");
-        }
+        Role actorRole = members.get(actor);
+        Role targetRole = members.get(target);
+        return isOwner(actor) || (actorRole == Role.ADMIN && targetRole != Role.OWNER);
     }
-    
+
     public boolean canDemote(UUID actor, UUID target) {
-        String actorRole = members.get(actor);
-        String targetRole = members.get(target);
-        return isOwner(actor) || ("admin".equals(actorRole) && "builder".equals(targetRole));
-    }
-    
-    public void demote(UUID target) {
-        String current = members.getOrDefault(target, "member");
-        if ("admin".equals(current)) {
-            members.put(target, "builder");
-        } else if ("builder".equals(current)) {
-            members.put(target, "member");
-        }
+        Role actorRole = members.get(actor);
+        Role targetRole = members.get(target);
+        return isOwner(actor) || (actorRole == Role.ADMIN && targetRole == Role.BUILDER);
     }
 
     public boolean canInvite(UUID uuid) {
         return isOwner(uuid) || isAdmin(uuid);
     }
 
+    // ===== Copy-on-write updates =====
+
+    public Group withMember(UUID uuid, Role role) {
+        if (members.get(uuid) == role) return this;
+        Map<UUID, Role> updated = new HashMap<>(members);
+        updated.put(uuid, role);
+        return new Group(name, owner, updated);
+    }
+
+    public Group withoutMember(UUID uuid) {
+        if (!members.containsKey(uuid)) return this;
+        Map<UUID, Role> updated = new HashMap<>(members);
+        updated.remove(uuid);
+        return new Group(name, owner, updated);
+    }
+
+    public Group promoted(UUID target) {
+        Role current = members.getOrDefault(target, Role.MEMBER);
+        if (current == Role.MEMBER) {
+            return withMember(target, Role.BUILDER);
+        } else if (current == Role.BUILDER) {
+            return withMember(target, Role.ADMIN);
+        }
+        return this;
+    }
+
+    public Group demoted(UUID target) {
+        Role current = members.getOrDefault(target, Role.MEMBER);
+        if (current == Role.ADMIN) {
+            return withMember(target, Role.BUILDER);
+        } else if (current == Role.BUILDER) {
+            return withMember(target, Role.MEMBER);
+        }
+        return this;
+    }
+
 }
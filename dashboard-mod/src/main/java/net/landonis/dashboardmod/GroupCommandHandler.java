@@ -16,7 +16,6 @@ import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 
 import java.util.Collection;
-import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 
@@ -181,8 +180,8 @@ public class GroupCommandHandler {
             return 0;
         }
 
-        Group group = GroupManager.get(groupName);
-        if (group == null) {
+        // Permission is checked per target inside GroupManager, against the roles as they are by then
+        if (!GroupManager.groupExists(groupName)) {
             sender.sendMessage(Text.literal("Group not found.").formatted(Formatting.RED), false);
             return 0;
         }
@@ -193,16 +192,14 @@ public class GroupCommandHandler {
                 continue;
             }
 
-            if (!group.canPromote(sender.getUuid(), target.getId())) {
+            if (!GroupManager.promote(groupName, sender.getUuid(), target.getId())) {
                 sender.sendMessage(Text.literal("You can’t promote " + target.getName() + ".").formatted(Formatting.RED), false);
                 continue;
             }
 
-            group.promote(target.getId());
             sender.sendMessage(Text.literal("Promoted " + target.getName() + ".").formatted(Formatting.GREEN), false);
         }
 
-        GroupManager.save(); // persist promotions
         return 1;
     }
 
@@ -217,8 +214,8 @@ public class GroupCommandHandler {
             return 0;
         }
 
-        Group group = GroupManager.get(groupName);
-        if (group == null) {
+        // Permission is checked per target inside GroupManager, against the roles as they are by then
+        if (!GroupManager.groupExists(groupName)) {
             sender.sendMessage(Text.literal("Group not found.").formatted(Formatting.RED), false);
             return 0;
         }
@@ -229,16 +226,14 @@ public class GroupCommandHandler {
                 continue;
             }
 
-            if (!group.canDemote(sender.getUuid(), target.getId())) {
+            if (!GroupManager.demote(groupName, sender.getUuid(), target.getId())) {
                 sender.sendMessage(Text.literal("You can’t demote " + target.getName() + ".").formatted(Formatting.RED), false);
                 continue;
             }
 
-            group.demote(target.getId());
             sender.sendMessage(Text.literal("Demoted " + target.getName() + ".").formatted(Formatting.YELLOW), false);
         }
 
-        GroupManager.save(); // persist demotions
         return 1;
     }
 
@@ -284,23 +279,22 @@ public class GroupCommandHandler {
         sender.sendMessage(Text.literal("Members of '" + group.name + "':").formatted(Formatting.GREEN), false);
 
         MinecraftServer server = ctx.getSource().getServer();
-        for (Map.Entry<UUID, String> e : members.entrySet()) {
+        for (Map.Entry<UUID, Group.Role> e : members.entrySet()) {
             UUID id = e.getKey();
-            String role = e.getValue();
+            Group.Role role = e.getValue();
 
             String displayName = resolveName(server, id);
-            Formatting roleColor = switch (role.toLowerCase(Locale.ROOT)) {
-                case "owner" -> Formatting.GOLD;
-                case "admin" -> Formatting.RED;
-                case "builder" -> Formatting.AQUA;
-                case "member" -> Formatting.WHITE;
-                case "viewer" -> Formatting.GRAY;
-                default -> Formatting.DARK_GRAY;
+            Formatting roleColor = switch (role) {
+                case OWNER -> Formatting.GOLD;
+                case ADMIN -> Formatting.RED;
+                case BUILDER -> Formatting.AQUA;
+                case MEMBER -> Formatting.WHITE;
+                case VIEWER -> Formatting.GRAY;
             };
 
             sender.sendMessage(
                 Text.literal("- " + displayName + " ")
-                    .append(Text.literal("(" + role + ")").formatted(roleColor)),
+                    .append(Text.literal("(" + role.id() + ")").formatted(roleColor)),
                 false
             );
         }
@@ -4,24 +4,58 @@ import java.util.*;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
 import com.google.gson.reflect.TypeToken;
 
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.WorldSavePath;
 
+/**
+ * Owns all groups and pending invites.
+ *
+ * Groups are immutable snapshots held in concurrent maps, so lookups are lock-free and safe
+ * from the dashboard socket thread. Mutations are serialized on the GroupManager monitor and
+ * swap in a new {@link Group}, keeping the player-to-groups index in step.
+ *
+ * Mutations run on the server thread and only mark the groups dirty; a background thread
+ * writes groups.json once per {@link #FLUSH_DELAY_MS} no matter how many mutations happened
+ * in between. The file is replaced atomically, and {@link #shutdown()} flushes synchronously.
+ */
 public class GroupManager {
-    private static final Map<String, Group> groups = new HashMap<>();
-    private static final Gson gson = new Gson();
+    private static final long FLUSH_DELAY_MS = 2_000;
+
+    private static final Map<String, Group> groups = new ConcurrentHashMap<>();
+    // Reverse index: player → normalized names of the groups they belong to
+    private static final Map<UUID, Set<String>> groupsByMember = new ConcurrentHashMap<>();
+    // Roles are read case-insensitively; anything unrecognised degrades to viewer instead of null
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Group.Role.class, (JsonDeserializer<Group.Role>) (json, type, ctx) -> {
+                Group.Role role = json.isJsonNull() ? null : Group.Role.fromId(json.getAsString());
+                return role != null ? role : Group.Role.VIEWER;
+            })
+            .create();
     private static Path dataFile;
-    private static final Map<UUID, List<String>> invites = new HashMap<>();
+    private static final Map<UUID, List<String>> invites = new ConcurrentHashMap<>();
+
+    private static final Object WRITE_LOCK = new Object();
+    private static boolean dirty = false;
+    private static boolean flushScheduled = false;
+    private static ScheduledExecutorService flushExecutor;
 
     private static String norm(String s) {
         return s == null ? "" : s.toLowerCase(java.util.Locale.ROOT);
     }
 
-    public static void load(MinecraftServer server) {
+    public static synchronized void load(MinecraftServer server) {
         dataFile = server.getSavePath(WorldSavePath.ROOT).resolve("groups.json");
         if (Files.exists(dataFile)) {
             try (Reader reader = Files.newBufferedReader(dataFile)) {
@@ -32,7 +66,12 @@ public class GroupManager {
                         String key = norm(e.getKey());
                         Group g = e.getValue();
                         if (g != null) {
-                            groups.put(key, g);
+                            // Rebuild through the constructor so the snapshot holds an unmodifiable member map
+                            Map<UUID, Group.Role> members = new HashMap<>();
+                            if (g.members != null) {
+                                g.members.forEach((uuid, role) -> members.put(uuid, role != null ? role : Group.Role.VIEWER));
+                            }
+                            putGroup(key, new Group(g.name, g.owner, members));
                         }
                     }
                 }
@@ -40,19 +79,73 @@ public class GroupManager {
                 System.err.println("[GroupManager] Failed to load groups: " + e.getMessage());
             }
         }
+        RegionProtection.invalidateCachedDecisions();
     }
 
-    public static void save() {
-        saveGroups();
+    // -------- Persistence (write-behind) --------
+
+    /**
+     * Marks the groups dirty and schedules a background flush. Every group mutation ends here,
+     * so this is also where cached build decisions are invalidated.
+     */
+    public static synchronized void save() {
+        RegionProtection.invalidateCachedDecisions();
+        dirty = true;
+        if (flushScheduled || dataFile == null) return;
+        if (flushExecutor == null) {
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "DashboardMod-GroupSaver");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        flushScheduled = true;
+        flushExecutor.schedule(GroupManager::saveGroups, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Writes groups.json now if anything changed since the last flush.
+     */
     public static void saveGroups() {
-        if (dataFile == null) return;
-        try (Writer writer = Files.newBufferedWriter(dataFile)) {
-            gson.toJson(groups, writer);
-        } catch (IOException e) {
-            System.err.println("[GroupManager] Failed to save groups: " + e.getMessage());
+        synchronized (WRITE_LOCK) {
+            Path target;
+            synchronized (GroupManager.class) {
+                flushScheduled = false;
+                if (!dirty || dataFile == null) return;
+                target = dataFile;
+                dirty = false;
+            }
+            // Groups are immutable, so serializing outside the monitor still sees whole snapshots
+            String json = gson.toJson(groups);
+
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(tmp)) {
+                    writer.write(json);
+                }
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.err.println("[GroupManager] Failed to save groups: " + e.getMessage());
+                synchronized (GroupManager.class) {
+                    dirty = true; // retried on the next mutation or at shutdown
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the background writer and flushes any pending changes. Called on SERVER_STOPPING.
+     */
+    public static void shutdown() {
+        ScheduledExecutorService executor;
+        synchronized (GroupManager.class) {
+            executor = flushExecutor;
+            flushExecutor = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
         }
+        saveGroups();
     }
 
     // -------- Core lookups (case-insensitive) --------
@@ -73,70 +166,142 @@ public class GroupManager {
     }
 
     public static Collection<Group> getAllGroups() {
-        return groups.values();
+        return Collections.unmodifiableCollection(groups.values());
+    }
+
+    /**
+     * Groups the player belongs to, answered from the reverse index without scanning every group.
+     */
+    public static List<Group> getPlayerGroups(UUID playerId) {
+        Set<String> keys = groupsByMember.get(playerId);
+        if (keys == null) return Collections.emptyList();
+        List<Group> result = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Group g = groups.get(key);
+            if (g != null) result.add(g);
+        }
+        return result;
+    }
+
+    public static boolean hasPermission(String groupName, UUID playerId, Group.Permission permission) {
+        Group g = getGroup(groupName);
+        return g != null && g.hasPermission(playerId, permission);
     }
 
-    // -------- Mutations (persist automatically) --------
-    public static void createGroup(String name, UUID owner) {
+    // -------- Mutations (persisted by the background writer) --------
+    public static synchronized void createGroup(String name, UUID owner) {
         String key = norm(name);
         // Keep display name as provided; only the map key is lowercased
-        groups.put(key, new Group(name, owner));
+        putGroup(key, new Group(name, owner));
         save();
     }
 
-    public static void deleteGroup(String name) {
-        groups.remove(norm(name));
+    public static synchronized void deleteGroup(String name) {
+        String key = norm(name);
+        Group removed = groups.remove(key);
+        if (removed != null) {
+            for (UUID member : removed.members.keySet()) {
+                unindexMember(member, key);
+            }
+        }
         save();
     }
 
+    /**
+     * Swaps in a new snapshot for the key and updates the member index for whoever joined or left.
+     * Caller holds the GroupManager monitor.
+     */
+    private static void putGroup(String key, Group updated) {
+        Group previous = groups.put(key, updated);
+        if (previous != null) {
+            for (UUID member : previous.members.keySet()) {
+                if (!updated.isMember(member)) unindexMember(member, key);
+            }
+        }
+        for (UUID member : updated.members.keySet()) {
+            groupsByMember.computeIfAbsent(member, k -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private static void unindexMember(UUID member, String key) {
+        groupsByMember.computeIfPresent(member, (k, set) -> set.remove(key) && set.isEmpty() ? null : set);
+    }
+
     // -------- Membership helpers (encapsulation) --------
     public static boolean isMember(String groupName, UUID playerId) {
-        Group g = getGroup(groupName);
-        return g != null && g.isMember(playerId);
+        Set<String> keys = groupsByMember.get(playerId);
+        return keys != null && keys.contains(norm(groupName));
     }
 
-    public static Map<UUID, String> getMembers(String groupName) {
+    public static Map<UUID, Group.Role> getMembers(String groupName) {
         Group g = getGroup(groupName);
         if (g == null) return Collections.emptyMap();
-        // expose read-only view so handlers can’t mutate internals accidentally
-        return Collections.unmodifiableMap(g.members);
+        return g.members; // already unmodifiable
     }
 
     public static int getMemberCount(String groupName) {
         return getMembers(groupName).size();
     }
 
-    public static boolean addMember(String groupName, UUID playerId, String role) {
-        Group g = getGroup(groupName);
+    public static synchronized boolean addMember(String groupName, UUID playerId, Group.Role role) {
+        String key = norm(groupName);
+        Group g = groups.get(key);
         if (g == null) return false;
-        g.addMember(playerId, role);
+        putGroup(key, g.withMember(playerId, role));
         save();
         return true;
     }
 
-    public static boolean removeMember(String groupName, UUID playerId) {
-        Group g = getGroup(groupName);
+    public static synchronized boolean removeMember(String groupName, UUID playerId) {
+        String key = norm(groupName);
+        Group g = groups.get(key);
         if (g == null) return false;
         if (!g.isMember(playerId)) return false;
-        g.removeMember(playerId);
+        putGroup(key, g.withoutMember(playerId));
+        save();
+        return true;
+    }
+
+    /**
+     * Promotes a member if the actor may promote them. The check and the update happen under
+     * the same lock, so each sees the roles left by the previous change.
+     */
+    public static synchronized boolean promote(String groupName, UUID actor, UUID playerId) {
+        String key = norm(groupName);
+        Group g = groups.get(key);
+        if (g == null || !g.isMember(playerId) || !g.canPromote(actor, playerId)) return false;
+        putGroup(key, g.promoted(playerId));
+        save();
+        return true;
+    }
+
+    /**
+     * Demotes a member if the actor may demote them. The check and the update happen under
+     * the same lock, so each sees the roles left by the previous change.
+     */
+    public static synchronized boolean demote(String groupName, UUID actor, UUID playerId) {
+        String key = norm(groupName);
+        Group g = groups.get(key);
+        if (g == null || !g.isMember(playerId) || !g.canDemote(actor, playerId)) return false;
+        putGroup(key, g.demoted(playerId));
         save();
         return true;
     }
 
     // -------- Invites (store normalized names) --------
     public static void invite(String groupName, UUID playerId) {
-        invites.computeIfAbsent(playerId, k -> new ArrayList<>()).add(norm(groupName));
+        invites.computeIfAbsent(playerId, k -> new CopyOnWriteArrayList<>()).add(norm(groupName));
     }
 
-    public static boolean accept(String groupName, UUID playerId) {
+    public static synchronized boolean accept(String groupName, UUID playerId) {
         String key = norm(groupName);
-        List<String> userInvites = invites.getOrDefault(playerId, new ArrayList<>());
+        List<String> userInvites = invites.getOrDefault(playerId, Collections.emptyList());
         if (!userInvites.contains(key)) return false;
 
         Group group = groups.get(key);
         if (group == null) return false;
 
-        group.addMember(playerId, "member");
+        putGroup(key, group.withMember(playerId, Group.Role.MEMBER));
         userInvites.remove(key);
         save();
         return true;
@@ -6,6 +6,7 @@ import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.minecraft.command.argument.GameProfileArgumentType;
+import net.minecraft.registry.RegistryKey;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
@@ -13,6 +14,7 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 
 import java.util.*;
 
@@ -89,14 +91,17 @@ public class RegionCommandHandler {
     private static int executeClaim(CommandContext<ServerCommandSource> ctx) throws CommandSyntaxException {
         ServerPlayerEntity player = ctx.getSource().getPlayerOrThrow();
         ChunkPos pos = player.getChunkPos();
+        RegistryKey<World> world = player.getWorld().getRegistryKey();
         UUID uuid = player.getUuid();
 
-        if (RegionManager.isClaimed(pos)) {
-            String owner = RegionManager.getChunkOwner(pos);
+        if (RegionManager.isClaimed(world, pos)) {
+            String owner = RegionManager.getChunkOwner(world, pos);
             player.sendMessage(Text.literal("This chunk is already claimed by " + owner + ".").formatted(Formatting.RED), false);
-        } else if (RegionManager.claimChunk(uuid, pos)) {
+        } else if (RegionManager.hasReachedClaimLimit(uuid)) {
+            player.sendMessage(Text.literal("You have reached the claim limit of " + RegionManager.getClaimLimit() + " chunks.").formatted(Formatting.RED), false);
+        } else if (RegionManager.claimChunk(uuid, world, pos)) {
             player.sendMessage(Text.literal("Chunk claimed successfully! (" + pos.x + ", " + pos.z + ")").formatted(Formatting.GREEN), false);
-            DashboardWebSocketClient.sendClaimUpdate(player.getName().getString(), pos, "claimed");
+            DashboardWebSocketClient.sendClaimUpdate(player.getName().getString(), world, pos, "claimed");
         } else {
             player.sendMessage(Text.literal("Failed to claim chunk.").formatted(Formatting.RED), false);
         }
@@ -106,14 +111,15 @@ public class RegionCommandHandler {
     private static int executeListClaims(CommandContext<ServerCommandSource> ctx) throws CommandSyntaxException {
         ServerPlayerEntity player = ctx.getSource().getPlayerOrThrow();
         UUID uuid = player.getUuid();
-        List<ChunkPos> claims = RegionManager.getClaims(uuid);
+        List<RegionManager.ClaimLocation> claims = RegionManager.getClaims(uuid);
     
         if (claims.isEmpty()) {
             player.sendMessage(Text.literal("You have no claimed chunks.").formatted(Formatting.GRAY), false);
         } else {
             player.sendMessage(Text.literal("Your claimed chunks:").formatted(Formatting.GREEN), false);
-            for (ChunkPos pos : claims) {
-                player.sendMessage(Text.literal("- (" + pos.x + ", " + pos.z + ")").formatted(Formatting.GRAY), false);
+            for (RegionManager.ClaimLocation claim : claims) {
+                ChunkPos pos = claim.pos();
+                player.sendMessage(Text.literal("- (" + pos.x + ", " + pos.z + ") in " + claim.dimensionId()).formatted(Formatting.GRAY), false);
             }
         }
     
@@ -124,6 +130,7 @@ public class RegionCommandHandler {
     private static int executeGroupClaim(CommandContext<ServerCommandSource> ctx) throws CommandSyntaxException {
         ServerPlayerEntity player = ctx.getSource().getPlayerOrThrow();
         ChunkPos pos = player.getChunkPos();
+        RegistryKey<World> world = player.getWorld().getRegistryKey();
         String group = StringArgumentType.getString(ctx, "group");
 
         if (!GroupManager.groupExists(group)) {
@@ -131,17 +138,17 @@ public class RegionCommandHandler {
             return 1;
         }
 
-        if (!GroupManager.getGroup(group).hasPermission(player.getUuid(), "claim")) {
+        if (!GroupManager.getGroup(group).hasPermission(player.getUuid(), Group.Permission.CLAIM)) {
             player.sendMessage(Text.literal("You don't have permission to claim for this group.").formatted(Formatting.RED), false);
             return 1;
         }
 
-        if (RegionManager.isClaimed(pos)) {
-            String owner = RegionManager.getChunkOwner(pos);
+        if (RegionManager.isClaimed(world, pos)) {
+            String owner = RegionManager.getChunkOwner(world, pos);
             player.sendMessage(Text.literal("This chunk is already claimed by " + owner + ".").formatted(Formatting.RED), false);
-        } else if (RegionManager.claimChunk(group, pos)) {
+        } else if (RegionManager.claimChunk(group, world, pos)) {
             player.sendMessage(Text.literal("Chunk claimed for group '" + group + "'! (" + pos.x + ", " + pos.z + ")").formatted(Formatting.AQUA), false);
-            DashboardWebSocketClient.sendClaimUpdate(group, pos, "claimed");
+            DashboardWebSocketClient.sendClaimUpdate(group, world, pos, "claimed");
         } else {
             player.sendMessage(Text.literal("Failed to claim chunk.").formatted(Formatting.RED), false);
         }
@@ -151,8 +158,9 @@ public class RegionCommandHandler {
     private static int executeUnclaim(CommandContext<ServerCommandSource> ctx) throws CommandSyntaxException {
         ServerPlayerEntity player = ctx.getSource().getPlayerOrThrow();
         ChunkPos pos = player.getChunkPos();
+        RegistryKey<World> world = player.getWorld().getRegistryKey();
         UUID uuid = player.getUuid();
-        RegionManager.ClaimedChunk claim = RegionManager.getClaim(pos);
+        RegionManager.ClaimedChunk claim = RegionManager.getClaim(world, pos);
 
         if (claim == null) {
             player.sendMessage(Text.literal("This chunk is not claimed.").formatted(Formatting.RED), false);
@@ -164,15 +172,15 @@ public class RegionCommandHandler {
                 player.sendMessage(Text.literal("You do not own this chunk.").formatted(Formatting.RED), false);
                 return 1;
             }
-            RegionManager.unclaimChunk(uuid, pos);
+            RegionManager.unclaimChunk(uuid, world, pos);
             player.sendMessage(Text.literal("Unclaimed your chunk.").formatted(Formatting.YELLOW), false);
-            DashboardWebSocketClient.sendClaimUpdate(player.getName().getString(), pos, "unclaimed");
+            DashboardWebSocketClient.sendClaimUpdate(player.getName().getString(), world, pos, "unclaimed");
         } else if (claim.isGroupClaim()) {
             String group = claim.getGroupName();
-            boolean success = RegionManager.unclaimChunk(group, uuid, pos);
+            boolean success = RegionManager.unclaimChunk(group, uuid, world, pos);
             if (success) {
                 player.sendMessage(Text.literal("Unclaimed group chunk for '" + group + "'.").formatted(Formatting.YELLOW), false);
-                DashboardWebSocketClient.sendClaimUpdate(group, pos, "unclaimed");
+                DashboardWebSocketClient.sendClaimUpdate(group, world, pos, "unclaimed");
             } else {
                 player.sendMessage(Text.literal("You don't have permission to unclaim this group chunk.").formatted(Formatting.RED), false);
             }
@@ -183,9 +191,10 @@ public class RegionCommandHandler {
     private static int executeClaimInfo(CommandContext<ServerCommandSource> ctx) throws CommandSyntaxException {
         ServerPlayerEntity player = ctx.getSource().getPlayerOrThrow();
         ChunkPos pos = player.getChunkPos();
+        RegistryKey<World> world = player.getWorld().getRegistryKey();
 
-        if (RegionManager.isClaimed(pos)) {
-            String owner = RegionManager.getChunkOwner(pos);
+        if (RegionManager.isClaimed(world, pos)) {
+            String owner = RegionManager.getChunkOwner(world, pos);
             player.sendMessage(Text.literal("This chunk is claimed by: ").formatted(Formatting.YELLOW)
                 .append(Text.literal(owner).formatted(Formatting.GREEN)), false);
         } else {
@@ -210,7 +219,8 @@ public class RegionCommandHandler {
     private static int executeTrustList(CommandContext<ServerCommandSource> ctx) throws CommandSyntaxException {
         ServerPlayerEntity player = ctx.getSource().getPlayerOrThrow();
         ChunkPos pos = player.getChunkPos();
-        RegionManager.ClaimedChunk claim = RegionManager.getClaim(pos);
+        RegistryKey<World> world = player.getWorld().getRegistryKey();
+        RegionManager.ClaimedChunk claim = RegionManager.getClaim(world, pos);
 
         if (claim == null || !claim.getOwner().equals(player.getUuid())) {
             player.sendMessage(Text.literal("You do not own this chunk.").formatted(Formatting.RED), false);
@@ -233,7 +243,8 @@ public class RegionCommandHandler {
     private static int executeTrust(CommandContext<ServerCommandSource> ctx) throws CommandSyntaxException {
         ServerPlayerEntity sender = ctx.getSource().getPlayerOrThrow();
         ChunkPos pos = sender.getChunkPos();
-        RegionManager.ClaimedChunk claim = RegionManager.getClaim(pos);
+        RegistryKey<World> world = sender.getWorld().getRegistryKey();
+        RegionManager.ClaimedChunk claim = RegionManager.getClaim(world, pos);
 
         if (claim == null || !claim.getOwner().equals(sender.getUuid())) {
             sender.sendMessage(Text.literal("You do not own this chunk.").formatted(Formatting.RED), false);
@@ -248,7 +259,7 @@ public class RegionCommandHandler {
             } else if (claim.getTrustedPlayers().contains(targetUUID)) {
                 sender.sendMessage(Text.literal(target.getName() + " is already trusted.").formatted(Formatting.YELLOW), false);
             } else {
-                claim.addTrustedPlayer(targetUUID);
+                RegionManager.trustPlayer(world, pos, targetUUID);
                 sender.sendMessage(Text.literal("Trusted " + target.getName() + " for this chunk.").formatted(Formatting.GREEN), false);
             }
         }
@@ -259,7 +270,8 @@ public class RegionCommandHandler {
     private static int executeUntrust(CommandContext<ServerCommandSource> ctx) throws CommandSyntaxException {
         ServerPlayerEntity sender = ctx.getSource().getPlayerOrThrow();
         ChunkPos pos = sender.getChunkPos();
-        RegionManager.ClaimedChunk claim = RegionManager.getClaim(pos);
+        RegistryKey<World> world = sender.getWorld().getRegistryKey();
+        RegionManager.ClaimedChunk claim = RegionManager.getClaim(world, pos);
 
         if (claim == null || !claim.getOwner().equals(sender.getUuid())) {
             sender.sendMessage(Text.literal("You do not own this chunk.").formatted(Formatting.RED), false);
@@ -270,7 +282,7 @@ public class RegionCommandHandler {
         for (GameProfile target : targets) {
             UUID targetUUID = target.getId();
             if (claim.getTrustedPlayers().contains(targetUUID)) {
-                claim.removeTrustedPlayer(targetUUID);
+                RegionManager.untrustPlayer(world, pos, targetUUID);
                 sender.sendMessage(Text.literal("Removed trust from " + target.getName() + ".").formatted(Formatting.YELLOW), false);
             } else {
                 sender.sendMessage(Text.literal(target.getName() + " is not trusted.").formatted(Formatting.RED), false);
@@ -3,16 +3,38 @@ package net.landonis.dashboardmod;
 import com.google.gson.*;
 import com.mojang.authlib.GameProfile;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Identifier;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 
 import java.io.*;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class RegionManager {
-    private static final Map<ChunkPos, ClaimedChunk> claimedChunks = new ConcurrentHashMap<>();
-    private static final File CLAIM_FILE = new File("config/dashboardmod/claims.json");
+    // One claim index per dimension so a claim only protects the world it was made in
+    private static final Map<RegistryKey<World>, ClaimIndex<ClaimedChunk>> claimsByWorld = new ConcurrentHashMap<>();
+    private static final File SNAPSHOT_FILE = new File("config/dashboardmod/claims.dat");
+    private static final File JSON_FILE = new File("config/dashboardmod/claims.json");
+    private static final File JOURNAL_FILE = new File("config/dashboardmod/claims.journal");
+    private static final File CORRUPT_SNAPSHOT_FILE = new File(SNAPSHOT_FILE.getPath() + ".corrupt");
+    // Held while a mutation is journaled and applied, so compaction never sees one half done
+    private static final Object MUTATION_LOCK = new Object();
+    private static final ClaimJournal journal = new ClaimJournal(JOURNAL_FILE, MUTATION_LOCK, RegionManager::captureSnapshot);
+
+    // Reverse indexes for listing queries; kept in step with claimsByWorld under MUTATION_LOCK
+    private static final Map<UUID, Set<ClaimLocation>> claimsByOwner = new ConcurrentHashMap<>();
+    private static final Map<String, Set<ClaimLocation>> claimsByGroup = new ConcurrentHashMap<>();
+
+    // Set while a snapshot that failed to load is waiting for recovery; no snapshot may be written over it
+    private static volatile boolean snapshotWritesBlocked = false;
+
+    /** Maximum chunks a single player may claim; 0 disables the limit */
+    private static volatile int claimLimitPerPlayer = 0;
 
     private static final Map<UUID, String> nameCache = new HashMap<>();
     private static MinecraftServer serverReference;
@@ -22,99 +44,373 @@ public class RegionManager {
             serverReference = server;
             loadClaims();
         });
-        ServerLifecycleEvents.SERVER_STOPPING.register(server -> saveClaims());
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> shutdown());
     }
 
     public static void setServer(MinecraftServer server) {
         serverReference = server;
     }
 
+    private static ClaimIndex<ClaimedChunk> claims(RegistryKey<World> world) {
+        return claimsByWorld.computeIfAbsent(world, k -> new ClaimIndex<>());
+    }
+
     // ===== Claiming =====
 
-    public static boolean claimChunk(UUID owner, ChunkPos pos) {
-        if (claimedChunks.containsKey(pos)) return false;
-        claimedChunks.put(pos, ClaimedChunk.playerClaim(owner));
+    public static boolean claimChunk(UUID owner, RegistryKey<World> world, ChunkPos pos) {
+        long key = pos.toLong();
+        synchronized (MUTATION_LOCK) {
+            if (hasReachedClaimLimit(owner)) return false;
+            ClaimIndex<ClaimedChunk> index = claims(world);
+            if (index.containsKey(key)) return false;
+            // Journaled first, so a claim that cannot be persisted is never granted
+            journal.claimPlayer(dimensionId(world), key, owner);
+            ClaimedChunk claim = ClaimedChunk.playerClaim(owner);
+            index.put(key, claim);
+            indexClaim(world, key, claim);
+        }
+        RegionProtection.invalidateCachedDecisions();
+        journal.compactSoonIfLarge();
         return true;
     }
 
-    public static boolean claimChunk(String groupName, ChunkPos pos) {
-        if (claimedChunks.containsKey(pos)) return false;
+    public static boolean claimChunk(String groupName, RegistryKey<World> world, ChunkPos pos) {
         if (!GroupManager.groupExists(groupName)) return false;
-        claimedChunks.put(pos, ClaimedChunk.groupClaim(groupName));
+        long key = pos.toLong();
+        synchronized (MUTATION_LOCK) {
+            ClaimIndex<ClaimedChunk> index = claims(world);
+            if (index.containsKey(key)) return false;
+            journal.claimGroup(dimensionId(world), key, groupName);
+            ClaimedChunk claim = ClaimedChunk.groupClaim(groupName);
+            index.put(key, claim);
+            indexClaim(world, key, claim);
+        }
+        RegionProtection.invalidateCachedDecisions();
+        journal.compactSoonIfLarge();
         return true;
     }
 
-    public static boolean unclaimChunk(UUID owner, ChunkPos pos) {
-        ClaimedChunk existing = claimedChunks.get(pos);
+    public static boolean unclaimChunk(UUID owner, RegistryKey<World> world, ChunkPos pos) {
+        ClaimIndex<ClaimedChunk> index = claimsByWorld.get(world);
+        if (index == null) return false;
+
+        long key = pos.toLong();
+        ClaimedChunk existing = index.get(key);
         if (existing != null && existing.isPlayerClaim() && owner.equals(existing.owner)) {
-            claimedChunks.remove(pos);
-            return true;
+            return removeClaim(world, index, key, existing);
         }
         return false;
     }
 
-    public static boolean unclaimChunk(String groupName, UUID actor, ChunkPos pos) {
-        ClaimedChunk claim = claimedChunks.get(pos);
+    public static boolean unclaimChunk(String groupName, UUID actor, RegistryKey<World> world, ChunkPos pos) {
+        ClaimIndex<ClaimedChunk> index = claimsByWorld.get(world);
+        if (index == null) return false;
+
+        long key = pos.toLong();
+        ClaimedChunk claim = index.get(key);
         if (claim != null && claim.isGroupClaim() && groupName.equals(claim.group)) {
             Group group = GroupManager.getGroup(groupName);
-            if (group != null && group.hasPermission(actor, "claim")) {
-                claimedChunks.remove(pos);
-                return true;
+            if (group != null && group.hasPermission(actor, Group.Permission.CLAIM)) {
+                return removeClaim(world, index, key, claim);
             }
         }
         return false;
     }
 
-    public static ClaimedChunk getClaim(ChunkPos pos) {
-        return claimedChunks.get(pos);
+    private static boolean removeClaim(RegistryKey<World> world, ClaimIndex<ClaimedChunk> index, long key, ClaimedChunk claim) {
+        synchronized (MUTATION_LOCK) {
+            if (index.get(key) != claim) return false;
+            journal.unclaim(dimensionId(world), key);
+            index.remove(key);
+            unindexClaim(world, key, claim);
+        }
+        RegionProtection.invalidateCachedDecisions();
+        return true;
+    }
+
+    /**
+     * Unconditionally stores a claim during load/replay/import, keeping the reverse indexes in step.
+     */
+    private static void putClaim(RegistryKey<World> world, long key, ClaimedChunk claim) {
+        synchronized (MUTATION_LOCK) {
+            ClaimedChunk previous = claims(world).put(key, claim);
+            if (previous != null) unindexClaim(world, key, previous);
+            indexClaim(world, key, claim);
+        }
+        RegionProtection.invalidateCachedDecisions();
+    }
+
+    private static void deleteClaim(RegistryKey<World> world, long key) {
+        synchronized (MUTATION_LOCK) {
+            ClaimIndex<ClaimedChunk> index = claimsByWorld.get(world);
+            ClaimedChunk previous = index == null ? null : index.remove(key);
+            if (previous != null) unindexClaim(world, key, previous);
+        }
+        RegionProtection.invalidateCachedDecisions();
+    }
+
+    // ===== Reverse indexes =====
+
+    private static void indexClaim(RegistryKey<World> world, long key, ClaimedChunk claim) {
+        ClaimLocation location = new ClaimLocation(world, new ChunkPos(key));
+        if (claim.isPlayerClaim()) {
+            claimsByOwner.computeIfAbsent(claim.owner, k -> ConcurrentHashMap.newKeySet()).add(location);
+        } else if (claim.isGroupClaim()) {
+            claimsByGroup.computeIfAbsent(groupKey(claim.group), k -> ConcurrentHashMap.newKeySet()).add(location);
+        }
+    }
+
+    private static void unindexClaim(RegistryKey<World> world, long key, ClaimedChunk claim) {
+        ClaimLocation location = new ClaimLocation(world, new ChunkPos(key));
+        if (claim.isPlayerClaim()) {
+            claimsByOwner.computeIfPresent(claim.owner, (k, set) -> set.remove(location) && set.isEmpty() ? null : set);
+        } else if (claim.isGroupClaim()) {
+            claimsByGroup.computeIfPresent(groupKey(claim.group), (k, set) -> set.remove(location) && set.isEmpty() ? null : set);
+        }
+    }
+
+    private static String groupKey(String groupName) {
+        return groupName.toLowerCase(Locale.ROOT);
+    }
+
+    // ===== Quotas =====
+
+    public static int getClaimCount(UUID owner) {
+        Set<ClaimLocation> owned = claimsByOwner.get(owner);
+        return owned == null ? 0 : owned.size();
+    }
+
+    public static int getGroupClaimCount(String groupName) {
+        Set<ClaimLocation> owned = claimsByGroup.get(groupKey(groupName));
+        return owned == null ? 0 : owned.size();
     }
 
-    public static boolean isClaimed(ChunkPos pos) {
-        return claimedChunks.containsKey(pos);
+    public static void setClaimLimit(int maxClaimsPerPlayer) {
+        claimLimitPerPlayer = Math.max(0, maxClaimsPerPlayer);
+    }
+
+    public static int getClaimLimit() {
+        return claimLimitPerPlayer;
+    }
+
+    public static boolean hasReachedClaimLimit(UUID owner) {
+        int limit = claimLimitPerPlayer;
+        return limit > 0 && getClaimCount(owner) >= limit;
+    }
+
+    // ===== Trust =====
+
+    public static boolean trustPlayer(RegistryKey<World> world, ChunkPos pos, UUID player) {
+        synchronized (MUTATION_LOCK) {
+            ClaimedChunk claim = getClaim(world, pos);
+            if (claim == null || claim.isTrusted(player)) return false;
+            journal.trust(dimensionId(world), pos.toLong(), player);
+            claim.addTrustedPlayer(player);
+        }
+        RegionProtection.invalidateCachedDecisions();
+        return true;
+    }
+
+    public static boolean untrustPlayer(RegistryKey<World> world, ChunkPos pos, UUID player) {
+        synchronized (MUTATION_LOCK) {
+            ClaimedChunk claim = getClaim(world, pos);
+            if (claim == null || !claim.isTrusted(player)) return false;
+            journal.untrust(dimensionId(world), pos.toLong(), player);
+            claim.removeTrustedPlayer(player);
+        }
+        RegionProtection.invalidateCachedDecisions();
+        return true;
+    }
+
+    public static ClaimedChunk getClaim(RegistryKey<World> world, ChunkPos pos) {
+        return getClaim(world, pos.toLong());
+    }
+
+    /**
+     * Allocation-free lookup by chunk coordinates, e.g. {@code getClaim(world, pos.getX() >> 4, pos.getZ() >> 4)}.
+     */
+    public static ClaimedChunk getClaim(RegistryKey<World> world, int chunkX, int chunkZ) {
+        return getClaim(world, ChunkPos.toLong(chunkX, chunkZ));
+    }
+
+    /**
+     * Lookup by a key packed with {@link ChunkPos#toLong()}.
+     */
+    public static ClaimedChunk getClaim(RegistryKey<World> world, long packedChunkPos) {
+        ClaimIndex<ClaimedChunk> index = claimsByWorld.get(world);
+        return index == null ? null : index.get(packedChunkPos);
+    }
+
+    public static boolean isClaimed(RegistryKey<World> world, ChunkPos pos) {
+        return getClaim(world, pos.toLong()) != null;
     }
 
     // ===== Save / Load =====
 
+    /**
+     * Writes a full snapshot of all claims. Normally the journal compacts on its own;
+     * this is for forcing a snapshot, e.g. before copying the config directory.
+     */
     public static void saveClaims() {
+        List<ClaimSnapshot.Entry> entries;
+        synchronized (MUTATION_LOCK) {
+            entries = copyEntries();
+        }
         try {
-            CLAIM_FILE.getParentFile().mkdirs();
-            JsonArray data = new JsonArray();
+            writeSnapshot(entries);
+        } catch (IOException e) {
+            System.err.println("[DashboardMod] Failed to save claims: " + e.getMessage());
+        }
+    }
 
-            for (Map.Entry<ChunkPos, ClaimedChunk> entry : claimedChunks.entrySet()) {
-                ChunkPos pos = entry.getKey();
-                ClaimedChunk chunk = entry.getValue();
+    /**
+     * Runs on the journal thread during compaction, with MUTATION_LOCK held right after the journal
+     * rotates. Only the copy happens under the lock; encoding and writing happen after it is released.
+     */
+    private static ClaimJournal.PendingSnapshot captureSnapshot() {
+        List<ClaimSnapshot.Entry> entries = copyEntries();
+        return () -> writeSnapshot(entries);
+    }
 
-                JsonObject obj = new JsonObject();
-                obj.addProperty("x", pos.x);
-                obj.addProperty("z", pos.z);
+    private static void writeSnapshot(List<ClaimSnapshot.Entry> entries) throws IOException {
+        if (snapshotWritesBlocked) {
+            // Throwing keeps the rotated journal, so no mutation is lost while writes are blocked
+            throw new IOException("claim snapshot writes are blocked until " + CORRUPT_SNAPSHOT_FILE.getName() + " is recovered");
+        }
+        ClaimSnapshot.write(SNAPSHOT_FILE, entries);
+    }
 
-                if (chunk.isPlayerClaim()) {
-                    obj.addProperty("owner", chunk.owner.toString());
-                } else if (chunk.isGroupClaim()) {
-                    obj.addProperty("group", chunk.group);
-                }
+    private static List<ClaimSnapshot.Entry> copyEntries() {
+        List<ClaimSnapshot.Entry> entries = new ArrayList<>();
+        for (Map.Entry<RegistryKey<World>, ClaimIndex<ClaimedChunk>> shard : claimsByWorld.entrySet()) {
+            String dimension = dimensionId(shard.getKey());
+            shard.getValue().forEach((packed, chunk) -> entries.add(new ClaimSnapshot.Entry(dimension, packed,
+                    chunk.owner, chunk.group, chunk.getTrustedPlayers().toArray(new UUID[0]))));
+        }
+        return entries;
+    }
 
-                JsonArray trusted = new JsonArray();
-                for (UUID uuid : chunk.getTrustedPlayers()) {
-                    trusted.add(uuid.toString());
-                }
-                obj.add("trusted", trusted);
+    /**
+     * Loads the last snapshot, replays the journal written since, and starts journaling new mutations.
+     * Runs on every server start; claims left over from a previous server in the same JVM are dropped first.
+     */
+    public static void loadClaims() {
+        clearClaims();
+        snapshotWritesBlocked = CORRUPT_SNAPSHOT_FILE.exists();
+        if (snapshotWritesBlocked) {
+            reportCorruptSnapshot(CORRUPT_SNAPSHOT_FILE, "is still waiting for recovery");
+        }
+
+        if (SNAPSHOT_FILE.exists()) {
+            try {
+                int loaded = ClaimSnapshot.read(SNAPSHOT_FILE, RegionManager::restoreClaim);
+                System.out.println("[DashboardMod] Loaded " + loaded + " claims from " + SNAPSHOT_FILE.getName());
+            } catch (IOException e) {
+                // Never run on a partial set: the next compaction would write it over the only good copy
+                System.err.println("[DashboardMod] Failed to load claims from " + SNAPSHOT_FILE.getName() + ": " + e.getMessage());
+                clearClaims();
+                snapshotWritesBlocked = true;
+                moveCorruptSnapshot();
+            }
+            journal.open(new JournalReplayer());
+        } else {
+            // First start after upgrading from claims.json: import it once and write the binary snapshot
+            boolean imported = !snapshotWritesBlocked && JSON_FILE.exists() && importJson(JSON_FILE) > 0;
+            journal.open(new JournalReplayer());
+            if (imported) saveClaims();
+        }
+    }
+
+    private static void moveCorruptSnapshot() {
+        try {
+            // Without REPLACE_EXISTING, so an earlier corrupt copy is never overwritten either
+            Files.move(SNAPSHOT_FILE.toPath(), CORRUPT_SNAPSHOT_FILE.toPath());
+            reportCorruptSnapshot(CORRUPT_SNAPSHOT_FILE, "could not be read and was moved aside");
+        } catch (IOException e) {
+            System.err.println("[DashboardMod] Failed to move " + SNAPSHOT_FILE.getName() + " aside: " + e.getMessage());
+            reportCorruptSnapshot(SNAPSHOT_FILE, "could not be read");
+        }
+    }
+
+    private static void reportCorruptSnapshot(File file, String problem) {
+        System.err.println("[DashboardMod] ************************************************************");
+        System.err.println("[DashboardMod] Claim snapshot " + file.getName() + " " + problem + ".");
+        System.err.println("[DashboardMod] The claims it holds are not loaded, and no claim snapshot will be written");
+        System.err.println("[DashboardMod] until it is restored as " + SNAPSHOT_FILE.getName() + " or deleted, then the server restarted.");
+        System.err.println("[DashboardMod] The journal keeps every change made in the meantime and is replayed on top.");
+        System.err.println("[DashboardMod] ************************************************************");
+    }
+
+    private static void clearClaims() {
+        synchronized (MUTATION_LOCK) {
+            claimsByWorld.clear();
+            claimsByOwner.clear();
+            claimsByGroup.clear();
+        }
+        RegionProtection.invalidateCachedDecisions();
+    }
+
+    /**
+     * Flushes the journal tail and closes it until the next {@link #loadClaims()}. Claims are already
+     * durable, so shutdown does not rewrite the snapshot.
+     */
+    public static void shutdown() {
+        journal.close();
+    }
+
+    private static void restoreClaim(String dimension, long packedPos, UUID owner, String group, UUID[] trusted) {
+        RegistryKey<World> world = parseWorldKey(dimension);
+        if (world == null) return;
+        ClaimedChunk claim = owner != null ? ClaimedChunk.playerClaim(owner) : ClaimedChunk.groupClaim(group);
+        for (UUID uuid : trusted) {
+            claim.addTrustedPlayer(uuid);
+        }
+        putClaim(world, packedPos, claim);
+    }
 
-                data.add(obj);
+    // ===== JSON import / export =====
+
+    /**
+     * Writes all claims as a JSON array in the legacy claims.json layout (plus "dim").
+     */
+    public static void exportJson(File file) throws IOException {
+        JsonArray data = new JsonArray();
+        for (ClaimSnapshot.Entry entry : copyEntries()) {
+            JsonObject obj = new JsonObject();
+            obj.addProperty("dim", entry.dimension());
+            obj.addProperty("x", ChunkPos.getPackedX(entry.packedPos()));
+            obj.addProperty("z", ChunkPos.getPackedZ(entry.packedPos()));
+
+            if (entry.owner() != null) {
+                obj.addProperty("owner", entry.owner().toString());
+            } else if (entry.group() != null) {
+                obj.addProperty("group", entry.group());
             }
 
-            try (Writer writer = new FileWriter(CLAIM_FILE)) {
-                new GsonBuilder().setPrettyPrinting().create().toJson(data, writer);
+            JsonArray trusted = new JsonArray();
+            for (UUID uuid : entry.trusted()) {
+                trusted.add(uuid.toString());
             }
+            obj.add("trusted", trusted);
 
-        } catch (IOException e) {
-            System.err.println("[DashboardMod] Failed to save claims: " + e.getMessage());
+            data.add(obj);
+        }
+
+        file.getParentFile().mkdirs();
+        try (Writer writer = new FileWriter(file)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(data, writer);
         }
     }
 
-    public static void loadClaims() {
-        if (!CLAIM_FILE.exists()) return;
-        try (Reader reader = new FileReader(CLAIM_FILE)) {
+    /**
+     * Reads claims from a claims.json-style array, replacing any claim at the same position.
+     * Imported claims are not journaled, so callers should follow up with {@link #saveClaims()}.
+     * Returns the number of claims imported.
+     */
+    public static int importJson(File file) {
+        int imported = 0;
+        int migrated = 0;
+        try (Reader reader = new FileReader(file)) {
             JsonArray array = JsonParser.parseReader(reader).getAsJsonArray();
             for (JsonElement el : array) {
                 JsonObject obj = el.getAsJsonObject();
@@ -138,31 +434,93 @@ public class RegionManager {
                     }
                 }
 
-                claimedChunks.put(new ChunkPos(x, z), claim);
+                // Entries written before claims were per-dimension have no "dim" and belong to the overworld
+                RegistryKey<World> world = obj.has("dim") ? parseWorldKey(obj.get("dim").getAsString()) : null;
+                if (world == null) {
+                    world = World.OVERWORLD;
+                    migrated++;
+                }
+
+                putClaim(world, ChunkPos.toLong(x, z), claim);
+                imported++;
             }
         } catch (Exception e) {
-            System.err.println("[DashboardMod] Failed to load claims: " + e.getMessage());
+            System.err.println("[DashboardMod] Failed to import claims from " + file.getName() + ": " + e.getMessage());
+        }
+
+        if (migrated > 0) {
+            System.out.println("[DashboardMod] Migrated " + migrated + " legacy claims to the overworld");
+        }
+        if (imported > 0) {
+            System.out.println("[DashboardMod] Imported " + imported + " claims from " + file.getName());
         }
+        return imported;
+    }
+
+    /**
+     * Applies journal records directly to the indexes, bypassing permission checks and re-journaling.
+     */
+    private static class JournalReplayer implements ClaimJournal.Replayer {
+        @Override
+        public void claimPlayer(String dimension, long packedPos, UUID owner) {
+            RegistryKey<World> world = parseWorldKey(dimension);
+            if (world != null) putClaim(world, packedPos, ClaimedChunk.playerClaim(owner));
+        }
+
+        @Override
+        public void claimGroup(String dimension, long packedPos, String group) {
+            RegistryKey<World> world = parseWorldKey(dimension);
+            if (world != null) putClaim(world, packedPos, ClaimedChunk.groupClaim(group));
+        }
+
+        @Override
+        public void unclaim(String dimension, long packedPos) {
+            RegistryKey<World> world = parseWorldKey(dimension);
+            if (world != null) deleteClaim(world, packedPos);
+        }
+
+        @Override
+        public void trust(String dimension, long packedPos, UUID player) {
+            RegistryKey<World> world = parseWorldKey(dimension);
+            ClaimedChunk claim = world == null ? null : getClaim(world, packedPos);
+            if (claim != null) claim.addTrustedPlayer(player);
+        }
+
+        @Override
+        public void untrust(String dimension, long packedPos, UUID player) {
+            RegistryKey<World> world = parseWorldKey(dimension);
+            ClaimedChunk claim = world == null ? null : getClaim(world, packedPos);
+            if (claim != null) claim.removeTrustedPlayer(player);
+        }
+    }
+
+    private static String dimensionId(RegistryKey<World> world) {
+        return world.getValue().toString();
+    }
+
+    private static RegistryKey<World> parseWorldKey(String id) {
+        Identifier identifier = Identifier.tryParse(id);
+        return identifier == null ? null : RegistryKey.of(RegistryKeys.WORLD, identifier);
     }
 
     // ===== Permissions / Utilities =====
 
-    public static boolean canEdit(UUID actor, ChunkPos pos) {
-        ClaimedChunk claim = claimedChunks.get(pos);
+    public static boolean canEdit(UUID actor, RegistryKey<World> world, ChunkPos pos) {
+        ClaimedChunk claim = getClaim(world, pos);
         if (claim == null) return true;
 
         if (claim.isPlayerClaim()) {
             return claim.owner.equals(actor) || claim.isTrusted(actor);
         } else if (claim.isGroupClaim()) {
             Group group = GroupManager.getGroup(claim.group);
-            return group != null && group.hasPermission(actor, "build");
+            return group != null && group.hasPermission(actor, Group.Permission.BUILD);
         }
 
         return false;
     }
 
-    public static String getChunkOwner(ChunkPos pos) {
-        ClaimedChunk claim = claimedChunks.get(pos);
+    public static String getChunkOwner(RegistryKey<World> world, ChunkPos pos) {
+        ClaimedChunk claim = getClaim(world, pos);
         if (claim == null) return null;
 
         if (claim.isPlayerClaim()) {
@@ -174,26 +532,14 @@ public class RegionManager {
         return null;
     }
 
-    public static Set<ChunkPos> getPlayerClaims(UUID uuid) {
-        Set<ChunkPos> result = new HashSet<>();
-        for (Map.Entry<ChunkPos, ClaimedChunk> entry : claimedChunks.entrySet()) {
-            ClaimedChunk claim = entry.getValue();
-            if (claim.isPlayerClaim() && claim.owner.equals(uuid)) {
-                result.add(entry.getKey());
-            }
-        }
-        return result;
+    public static Set<ClaimLocation> getPlayerClaims(UUID uuid) {
+        Set<ClaimLocation> owned = claimsByOwner.get(uuid);
+        return owned == null ? new HashSet<>() : new HashSet<>(owned);
     }
 
-    public static Set<ChunkPos> getGroupClaims(String groupName) {
-        Set<ChunkPos> result = new HashSet<>();
-        for (Map.Entry<ChunkPos, ClaimedChunk> entry : claimedChunks.entrySet()) {
-            ClaimedChunk claim = entry.getValue();
-            if (claim.isGroupClaim() && claim.group.equals(groupName)) {
-                result.add(entry.getKey());
-            }
-        }
-        return result;
+    public static Set<ClaimLocation> getGroupClaims(String groupName) {
+        Set<ClaimLocation> owned = claimsByGroup.get(groupKey(groupName));
+        return owned == null ? new HashSet<>() : new HashSet<>(owned);
     }
 
     public static String resolvePlayerName(UUID uuid) {
@@ -203,12 +549,24 @@ public class RegionManager {
         });
     }
 
+    // ===== ClaimLocation =====
+
+    /**
+     * A claimed chunk together with the dimension it belongs to.
+     */
+    public record ClaimLocation(RegistryKey<World> dimension, ChunkPos pos) {
+        public String dimensionId() {
+            return dimension.getValue().toString();
+        }
+    }
+
     // ===== ClaimedChunk inner class =====
 
     public static class ClaimedChunk {
         private UUID owner;   // Null if group claim
         private String group; // Null if player claim
-        private final Set<UUID> trustedPlayers = new HashSet<>();
+        // Concurrent so lookups can read it without MUTATION_LOCK while trust is edited
+        private final Set<UUID> trustedPlayers = ConcurrentHashMap.newKeySet();
 
         public static ClaimedChunk playerClaim(UUID owner) {
             ClaimedChunk c = new ClaimedChunk();
@@ -254,26 +612,20 @@ public class RegionManager {
             return trustedPlayers;
         }
     }
-    
-    public static Map<String, Set<ChunkPos>> getAllClaims() {
+
+    public static Map<String, Set<ClaimLocation>> getAllClaims() {
         // Return a copy for safe iteration
-        Map<String, Set<ChunkPos>> result = new HashMap<>();
-        for (Map.Entry<ChunkPos, ClaimedChunk> entry : claimedChunks.entrySet()) {
-            ClaimedChunk chunk = entry.getValue();
-            String owner = chunk.isPlayerClaim() ? chunk.getOwner().toString() : chunk.getGroupName();
-            result.computeIfAbsent(owner, k -> new HashSet<>()).add(entry.getKey());
+        Map<String, Set<ClaimLocation>> result = new HashMap<>();
+        for (Map.Entry<UUID, Set<ClaimLocation>> entry : claimsByOwner.entrySet()) {
+            result.put(entry.getKey().toString(), new HashSet<>(entry.getValue()));
         }
-        return result;
-    }
-    
-    public static List<ChunkPos> getClaims(UUID uuid) {
-        List<ChunkPos> result = new ArrayList<>();
-        for (Map.Entry<ChunkPos, ClaimedChunk> entry : claimedChunks.entrySet()) {
-            ClaimedChunk claim = entry.getValue();
-            if (claim.isPlayerClaim() && claim.getOwner().equals(uuid)) {
-                result.add(entry.getKey());
-            }
+        for (Map.Entry<String, Set<ClaimLocation>> entry : claimsByGroup.entrySet()) {
+            result.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).addAll(entry.getValue());
         }
         return result;
     }
+
+    public static List<ClaimLocation> getClaims(UUID uuid) {
+        return new ArrayList<>(getPlayerClaims(uuid));
+    }
 }
@@ -1,29 +1,81 @@
 package net.landonis.dashboardmod;
 
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.Formatting;
+import net.minecraft.world.World;
 
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RegionProtection {
 
+    // Bumped by every claim, trust and group mutation; cached decisions from an older epoch are stale
+    private static final AtomicLong permissionEpoch = new AtomicLong();
+    private static final Map<UUID, CachedDecision> lastDecisions = new ConcurrentHashMap<>();
+
+    /**
+     * The last build decision made for a player. Only touched from the server thread.
+     */
+    private static final class CachedDecision {
+        RegistryKey<World> world;
+        long chunk;
+        long epoch = -1;
+        boolean allowed;
+    }
+
     public static boolean canPlayerBuild(UUID playerUuid, RegionManager.ClaimedChunk claim) {
         if (claim == null) return true;
 
         if (claim.isPlayerClaim()) {
             return claim.getOwner().equals(playerUuid) || claim.isTrusted(playerUuid);
         } else if (claim.isGroupClaim()) {
-            String groupName = claim.getGroupName();
-            return GroupManager.getGroup(groupName).hasPermission(playerUuid, "build");
+            Group group = GroupManager.getGroup(claim.getGroupName());
+            return group != null && group.hasPermission(playerUuid, Group.Permission.BUILD);
         }
 
         return false;
     }
 
+    /**
+     * Same decision as {@link #canPlayerBuild}, but remembers the last chunk each player acted in.
+     * Mining or building inside one chunk then skips the claim lookup and group resolution entirely
+     * until the player moves to another chunk or a claim/group mutation bumps the epoch.
+     */
+    public static boolean canPlayerBuildAt(UUID playerUuid, RegistryKey<World> world, BlockPos blockPos) {
+        long chunk = ChunkPos.toLong(blockPos.getX() >> 4, blockPos.getZ() >> 4);
+        long epoch = permissionEpoch.get();
+        CachedDecision cached = lastDecisions.computeIfAbsent(playerUuid, k -> new CachedDecision());
+        if (cached.epoch == epoch && cached.chunk == chunk && world.equals(cached.world)) {
+            return cached.allowed;
+        }
+
+        // Epoch was read first, so a mutation racing with this lookup leaves the entry stale rather than wrong
+        boolean allowed = canPlayerBuild(playerUuid, RegionManager.getClaim(world, chunk));
+        cached.world = world;
+        cached.chunk = chunk;
+        cached.epoch = epoch;
+        cached.allowed = allowed;
+        return allowed;
+    }
+
+    /**
+     * Invalidates every cached build decision. Called whenever claims, trust or groups change.
+     */
+    public static void invalidateCachedDecisions() {
+        permissionEpoch.incrementAndGet();
+    }
+
+    public static void forgetPlayer(UUID playerUuid) {
+        lastDecisions.remove(playerUuid);
+    }
+
     public static boolean canPlayerModifyBlock(PlayerEntity player, BlockPos blockPos) {
         if (!(player instanceof ServerPlayerEntity serverPlayer)) {
             return true; // client-side fallback
@@ -33,16 +85,14 @@ public class RegionProtection {
             return true; // Admins can always build
         }
 
-        ChunkPos chunkPos = new ChunkPos(blockPos);
-        RegionManager.ClaimedChunk claim = RegionManager.getClaim(chunkPos);
-
-        if (claim == null) {
-            return true; // unclaimed chunks are editable
+        RegistryKey<World> world = serverPlayer.getWorld().getRegistryKey();
+        if (canPlayerBuildAt(serverPlayer.getUuid(), world, blockPos)) {
+            return true; // unclaimed, owned or trusted
         }
 
-        UUID uuid = serverPlayer.getUuid();
-        if (canPlayerBuild(uuid, claim)) {
-            return true;
+        RegionManager.ClaimedChunk claim = RegionManager.getClaim(world, blockPos.getX() >> 4, blockPos.getZ() >> 4);
+        if (claim == null) {
+            return true; // unclaimed since the decision was cached
         }
 
         // Send denial message
@@ -63,11 +113,11 @@ public class RegionProtection {
         );
     }
 
-    public static boolean isChunkProtected(ChunkPos chunkPos) {
-        return RegionManager.isClaimed(chunkPos);
+    public static boolean isChunkProtected(RegistryKey<World> world, ChunkPos chunkPos) {
+        return RegionManager.isClaimed(world, chunkPos);
     }
 
-    public static String getChunkOwner(ChunkPos chunkPos) {
-        return RegionManager.getChunkOwner(chunkPos);
+    public static String getChunkOwner(RegistryKey<World> world, ChunkPos chunkPos) {
+        return RegionManager.getChunkOwner(world, chunkPos);
     }
 }
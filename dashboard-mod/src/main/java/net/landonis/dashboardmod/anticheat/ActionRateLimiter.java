@@ -11,6 +11,7 @@ import net.minecraft.text.Text;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * ActionRateLimiter - Detects and prevents obvious exploit patterns
@@ -35,8 +36,8 @@ public class ActionRateLimiter {
     /** Minimum time between attacks (ms) - below this is impossible */
     private static final long EXPLOIT_ATTACK_SPEED_MS = 20;
     
-    /** Maximum interaction distance in blocks - very generous to avoid false positives */
-    private static final double MAX_INTERACTION_DISTANCE_BLOCKS = 8.0;
+    /** Blocks allowed beyond the player's block interaction range, measured from the eyes to the block's nearest face */
+    private static final double REACH_TOLERANCE_BLOCKS = 1.5;
     
     /** Block breaks per second that indicates nuker usage - set to catch obvious exploits only */
     private static final int NUKER_DETECTION_THRESHOLD = 45;
@@ -56,36 +57,279 @@ public class ActionRateLimiter {
     /** How often to perform maintenance cleanup */
     private static final long CLEANUP_INTERVAL_MS = 300_000; // 5 minutes
     
-    /** How often to update cached player positions */
-    private static final long POSITION_UPDATE_INTERVAL_MS = 100; // 100ms
+    /** Players visited per maintenance call while a cleanup pass is running */
+    private static final int MAINTENANCE_SLICE = 32;
     
     /** Multiplier for item use rate limits (more lenient) */
     private static final int ITEM_USE_RATE_MULTIPLIER = 2;
     
-    /** Offset to target block center for distance calculations */
-    private static final double BLOCK_CENTER_OFFSET = 0.5;
+    /** Highest action-rate threshold: item use at the largest catch-up scale */
+    private static final int MAX_ACTION_RATE_THRESHOLD =
+            (int) Math.ceil(EXPLOIT_ACTIONS_PER_SECOND * ITEM_USE_RATE_MULTIPLIER * AntiCheatLoad.MAX_CATCH_UP_SCALE);
+    
+    /**
+     * Timestamps kept per action window: the power of two above every rate threshold at any catch-up
+     * scale, so saturating it still trips detection while the server is behind
+     */
+    private static final int ACTION_WINDOW_CAPACITY = Integer.highestOneBit(MAX_ACTION_RATE_THRESHOLD) << 1;
+    
+    /** Attack intervals in the click pattern sketch (power of two); a pattern is judged only once it is full */
+    private static final int CLICK_WINDOW = 64;
+    
+    /** Width of a click interval histogram bucket */
+    private static final int CLICK_BUCKET_MS = 5;
+    
+    /** A pause longer than this ends a click streak and clears the sketch */
+    private static final int CLICK_STREAK_BREAK_MS = 500;
+    
+    /** Only sustained clicking faster than this mean interval is judged for regularity (5 CPS) */
+    private static final double REGULAR_CLICK_MAX_MEAN_MS = 200.0;
+    
+    /** Interval standard deviation below which clicking is too regular for a human */
+    private static final double MIN_CLICK_DEVIATION_MS = 3.0;
+    
+    /** Interval histogram entropy below which clicking is too regular for a human */
+    private static final double MIN_CLICK_ENTROPY_BITS = 1.5;
+    
+    /** Minimum time between packet flood reports for one player and packet kind */
+    private static final long FLOOD_REPORT_INTERVAL_NANOS = 1_000_000_000L;
     
     // ==================== INSTANCE VARIABLES ====================
     
     private final Map<UUID, PlayerActionData> playerActionData = new ConcurrentHashMap<>();
+    private final LongAdder[] packetsAllowed = newCounters();
+    private final LongAdder[] packetsDropped = newCounters();
+    private final AntiCheatLoad load;
+    private final RiskScores riskScores;
+    private final ViolationBus violations;
+    private final PoseTracker poseTracker;
     private long lastMaintenanceTime = System.currentTimeMillis();
+    /** Cleanup pass in progress, or null between passes */
+    private Iterator<PlayerActionData> maintenanceCursor;
+    
+    // ==================== CONSTRUCTOR ====================
+    
+    public ActionRateLimiter(AntiCheatLoad load, RiskScores riskScores, ViolationBus violations,
+                             PoseTracker poseTracker) {
+        this.load = load;
+        this.riskScores = riskScores;
+        this.violations = violations;
+        this.poseTracker = poseTracker;
+    }
     
     // ==================== INNER CLASSES ====================
     
+    /**
+     * Client packets rate limited before the game handles them, with the sustained rate and the
+     * burst each allows. Set far above what a legitimate client sends, so only floods are cut.
+     */
+    public enum PacketKind {
+        PLAYER_ACTION(120, 240),    // dig start/stop/abort, drops, hand swaps
+        INTERACT_BLOCK(60, 120),
+        INTERACT_ITEM(60, 120),
+        INTERACT_ENTITY(40, 80),
+        HAND_SWING(80, 160),
+        CLICK_SLOT(100, 200);
+        
+        final double perSecond;
+        final double burst;
+        
+        PacketKind(double perSecond, double burst) {
+            this.perSecond = perSecond;
+            this.burst = burst;
+        }
+    }
+    
+    /**
+     * One token bucket per packet kind for a player, refilled lazily from the elapsed time when a
+     * packet arrives. Only used from the player's network thread, so plain arrays suffice.
+     */
+    static final class PacketBuckets {
+        private static final int KINDS = PacketKind.values().length;
+        
+        private final double[] tokens = new double[KINDS];
+        private final long[] lastRefillNanos = new long[KINDS];
+        private final int[] droppedSinceReport = new int[KINDS];
+        private final long[] lastReportNanos = new long[KINDS];
+        private int floodReports = 0;
+        
+        boolean tryTake(PacketKind kind, long now) {
+            int i = kind.ordinal();
+            if (lastRefillNanos[i] == 0) {
+                tokens[i] = kind.burst;
+            } else {
+                tokens[i] = Math.min(kind.burst, tokens[i] + (now - lastRefillNanos[i]) * kind.perSecond / 1_000_000_000.0);
+            }
+            lastRefillNanos[i] = now;
+            
+            if (tokens[i] >= 1.0) {
+                tokens[i] -= 1.0;
+                return true;
+            }
+            droppedSinceReport[i]++;
+            return false;
+        }
+        
+        /** Packets dropped since the last report if one is due now, otherwise 0. */
+        int takeFloodReport(PacketKind kind, long now) {
+            int i = kind.ordinal();
+            if (now - lastReportNanos[i] < FLOOD_REPORT_INTERVAL_NANOS && lastReportNanos[i] != 0) {
+                return 0;
+            }
+            int dropped = droppedSinceReport[i];
+            droppedSinceReport[i] = 0;
+            lastReportNanos[i] = now;
+            floodReports++;
+            return dropped;
+        }
+        
+        int getFloodReports() {
+            return floodReports;
+        }
+    }
+    
+    /**
+     * Fixed-capacity ring of primitive timestamps in arrival order. Expired entries are dropped
+     * from the head, so recording and counting are O(1) amortized and never allocate.
+     * When full, the oldest timestamp is overwritten and the count saturates at the capacity.
+     */
+    static final class ActionWindow {
+        private static final int MASK = ACTION_WINDOW_CAPACITY - 1;
+        
+        private final long[] timestamps = new long[ACTION_WINDOW_CAPACITY];
+        private int head = 0;
+        private int size = 0;
+        
+        void add(long timestamp) {
+            if (size == ACTION_WINDOW_CAPACITY) {
+                head = (head + 1) & MASK;
+                size--;
+            }
+            timestamps[(head + size) & MASK] = timestamp;
+            size++;
+        }
+        
+        void expireBefore(long cutoffTime) {
+            while (size > 0 && timestamps[head] < cutoffTime) {
+                head = (head + 1) & MASK;
+                size--;
+            }
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        /** Interval between the two most recent timestamps, or Long.MAX_VALUE if there are fewer than two. */
+        long lastInterval() {
+            if (size < 2) {
+                return Long.MAX_VALUE;
+            }
+            int last = (head + size - 1) & MASK;
+            return timestamps[last] - timestamps[(last - 1) & MASK];
+        }
+    }
+    
+    /**
+     * Streaming sketch of the intervals between a player's last CLICK_WINDOW attacks: a histogram
+     * of CLICK_BUCKET_MS buckets, running sums for mean and variance, and the histogram's entropy.
+     * All three are updated incrementally as an interval enters and the oldest leaves, so recording
+     * is O(1) and never allocates. Entropy is kept as the sum of c*log2(c) over the bucket counts,
+     * from which H = log2(n) - sum/n.
+     */
+    static final class ClickPattern {
+        private static final int MASK = CLICK_WINDOW - 1;
+        private static final int BUCKETS = CLICK_STREAK_BREAK_MS / CLICK_BUCKET_MS + 1;
+        private static final double[] C_LOG2_C = new double[CLICK_WINDOW + 1];
+        
+        static {
+            for (int c = 1; c <= CLICK_WINDOW; c++) {
+                C_LOG2_C[c] = c * Math.log(c) / Math.log(2);
+            }
+        }
+        
+        private final int[] intervals = new int[CLICK_WINDOW];
+        private final int[] histogram = new int[BUCKETS];
+        private int head = 0;
+        private int size = 0;
+        private long sum = 0;
+        private long sumOfSquares = 0;
+        private double sumCLog2C = 0.0;
+        private long lastClick = 0;
+        
+        void record(long timestamp) {
+            long interval = timestamp - lastClick;
+            boolean first = lastClick == 0;
+            lastClick = timestamp;
+            if (first || interval < 0) {
+                return;
+            }
+            if (interval > CLICK_STREAK_BREAK_MS) {
+                clear();
+                return;
+            }
+            
+            if (size == CLICK_WINDOW) {
+                int oldest = intervals[head];
+                head = (head + 1) & MASK;
+                size--;
+                sum -= oldest;
+                sumOfSquares -= (long) oldest * oldest;
+                adjustBucket(oldest / CLICK_BUCKET_MS, -1);
+            }
+            int value = (int) interval;
+            intervals[(head + size) & MASK] = value;
+            size++;
+            sum += value;
+            sumOfSquares += (long) value * value;
+            adjustBucket(value / CLICK_BUCKET_MS, 1);
+        }
+        
+        private void adjustBucket(int bucket, int delta) {
+            int count = histogram[bucket];
+            sumCLog2C += C_LOG2_C[count + delta] - C_LOG2_C[count];
+            histogram[bucket] = count + delta;
+        }
+        
+        /** Forgets the streak; the last click time is kept so the next interval still counts. */
+        void clear() {
+            Arrays.fill(histogram, 0);
+            head = 0;
+            size = 0;
+            sum = 0;
+            sumOfSquares = 0;
+            sumCLog2C = 0.0;
+        }
+        
+        boolean isFull() {
+            return size == CLICK_WINDOW;
+        }
+        
+        double meanInterval() {
+            return size > 0 ? (double) sum / size : 0.0;
+        }
+        
+        double intervalDeviation() {
+            if (size == 0) return 0.0;
+            double mean = (double) sum / size;
+            return Math.sqrt(Math.max(0.0, (double) sumOfSquares / size - mean * mean));
+        }
+        
+        double entropyBits() {
+            return size > 0 ? (C_LOG2_C[size] - sumCLog2C) / size : 0.0;
+        }
+    }
+    
     /**
      * Tracks action patterns and violations for a single player
      */
     private static class PlayerActionData {
-        // Action tracking lists
-        private final List<Long> blockBreakTimestamps = new ArrayList<>();
-        private final List<Long> attackTimestamps = new ArrayList<>();
-        private final List<Long> allActionTimestamps = new ArrayList<>();
-        
-        // Cached player position for reach checks
-        private double cachedPlayerX = 0.0;
-        private double cachedPlayerY = 0.0;
-        private double cachedPlayerZ = 0.0;
-        private long lastPositionUpdateTime = 0;
+        // Action tracking windows
+        private final ActionWindow blockBreakTimestamps = new ActionWindow();
+        private final ActionWindow attackTimestamps = new ActionWindow();
+        private final ActionWindow allActionTimestamps = new ActionWindow();
+        private final ClickPattern clickPattern = new ClickPattern();
+        private final PacketBuckets packetBuckets = new PacketBuckets();
         
         // Mining session tracking to distinguish sustained mining from exploits
         private long lastMiningSessionEnd = 0;
@@ -107,6 +351,7 @@ public class ActionRateLimiter {
         
         void recordAttack(long timestamp) {
             attackTimestamps.add(timestamp);
+            clickPattern.record(timestamp);
             allActionTimestamps.add(timestamp);
             lastActionTime = timestamp;
             removeExpiredActions(timestamp);
@@ -136,40 +381,19 @@ public class ActionRateLimiter {
         }
         
         long getTimeBetweenLastTwoBlockBreaks() {
-            if (blockBreakTimestamps.size() < 2) {
-                return Long.MAX_VALUE; // No interval available
-            }
-            int size = blockBreakTimestamps.size();
-            return blockBreakTimestamps.get(size - 1) - blockBreakTimestamps.get(size - 2);
+            return blockBreakTimestamps.lastInterval();
         }
         
         long getTimeBetweenLastTwoAttacks() {
-            if (attackTimestamps.size() < 2) {
-                return Long.MAX_VALUE; // No interval available
-            }
-            int size = attackTimestamps.size();
-            return attackTimestamps.get(size - 1) - attackTimestamps.get(size - 2);
-        }
-        
-        // ==================== POSITION CACHING METHODS ====================
-        
-        void updateCachedPosition(double x, double y, double z, long timestamp) {
-            this.cachedPlayerX = x;
-            this.cachedPlayerY = y;
-            this.cachedPlayerZ = z;
-            this.lastPositionUpdateTime = timestamp;
+            return attackTimestamps.lastInterval();
         }
         
-        boolean shouldUpdatePosition(long currentTime) {
-            return currentTime - lastPositionUpdateTime > POSITION_UPDATE_INTERVAL_MS;
+        ClickPattern getClickPattern() {
+            return clickPattern;
         }
         
-        double getDistanceToBlock(BlockPos blockPos) {
-            return Math.sqrt(
-                Math.pow(blockPos.getX() + BLOCK_CENTER_OFFSET - cachedPlayerX, 2) +
-                Math.pow(blockPos.getY() + BLOCK_CENTER_OFFSET - cachedPlayerY, 2) +
-                Math.pow(blockPos.getZ() + BLOCK_CENTER_OFFSET - cachedPlayerZ, 2)
-            );
+        PacketBuckets getPacketBuckets() {
+            return packetBuckets;
         }
         
         // ==================== VIOLATION TRACKING METHODS ====================
@@ -200,9 +424,9 @@ public class ActionRateLimiter {
         
         private void removeExpiredActions(long currentTime) {
             long cutoffTime = currentTime - PATTERN_DETECTION_WINDOW_MS;
-            blockBreakTimestamps.removeIf(timestamp -> timestamp < cutoffTime);
-            attackTimestamps.removeIf(timestamp -> timestamp < cutoffTime);
-            allActionTimestamps.removeIf(timestamp -> timestamp < cutoffTime);
+            blockBreakTimestamps.expireBefore(cutoffTime);
+            attackTimestamps.expireBefore(cutoffTime);
+            allActionTimestamps.expireBefore(cutoffTime);
         }
         
         boolean isPlayerInactive(long currentTime) {
@@ -233,29 +457,35 @@ public class ActionRateLimiter {
         PlayerActionData playerData = getOrCreatePlayerData(player.getUuid());
         long currentTime = System.currentTimeMillis();
         
+        // Under heavy load only a sample of players is checked; the rest are just recorded
+        if (!load.isSampled(player.getUuid())) {
+            playerData.recordBlockBreak(currentTime);
+            return true;
+        }
+        
         // Validate interaction distance
         if (!isWithinReachDistance(player, blockPos, playerData, "block break")) {
             return false;
         }
         
         // Check for nuker pattern
-        if (detectsNukerPattern(playerData, currentTime)) {
-            recordViolation(playerData, player, "Nuker detected: " + 
-                playerData.getRecentBlockBreaks(currentTime) + " blocks in 1 second");
+        if (load.allowsHeuristics() && detectsNukerPattern(playerData, currentTime)) {
+            recordViolation(playerData, player, ViolationType.NUKER,
+                playerData.getRecentBlockBreaks(currentTime), NUKER_DETECTION_THRESHOLD, null);
             return false;
         }
         
         // Check for impossible break speed
         if (detectsImpossibleBreakSpeed(playerData)) {
-            recordViolation(playerData, player, "Impossible break speed: " + 
-                playerData.getTimeBetweenLastTwoBlockBreaks() + "ms");
+            recordViolation(playerData, player, ViolationType.BREAK_SPEED,
+                playerData.getTimeBetweenLastTwoBlockBreaks(), EXPLOIT_BREAK_SPEED_MS / load.getCatchUpScale(), null);
             return false;
         }
         
         // Check for impossible action rate
         if (detectsImpossibleActionRate(playerData, currentTime, 1)) {
-            recordViolation(playerData, player, "Impossible action rate: " + 
-                playerData.getRecentActions(currentTime) + " actions per second");
+            recordViolation(playerData, player, ViolationType.ACTION_RATE,
+                playerData.getRecentActions(currentTime), EXPLOIT_ACTIONS_PER_SECOND * load.getCatchUpScale(), null);
             return false;
         }
         
@@ -274,13 +504,18 @@ public class ActionRateLimiter {
         PlayerActionData playerData = getOrCreatePlayerData(player.getUuid());
         long currentTime = System.currentTimeMillis();
         
+        if (!load.isSampled(player.getUuid())) {
+            playerData.recordGenericAction(currentTime);
+            return true;
+        }
+        
         if (!isWithinReachDistance(player, blockPos, playerData, "block place")) {
             return false;
         }
         
         if (detectsImpossibleActionRate(playerData, currentTime, 1)) {
-            recordViolation(playerData, player, "Impossible action rate during placement: " + 
-                playerData.getRecentActions(currentTime) + " per second");
+            recordViolation(playerData, player, ViolationType.PLACE_RATE,
+                playerData.getRecentActions(currentTime), EXPLOIT_ACTIONS_PER_SECOND * load.getCatchUpScale(), null);
             return false;
         }
         
@@ -299,10 +534,15 @@ public class ActionRateLimiter {
         PlayerActionData playerData = getOrCreatePlayerData(player.getUuid());
         long currentTime = System.currentTimeMillis();
         
+        if (!load.isSampled(player.getUuid())) {
+            playerData.recordGenericAction(currentTime);
+            return true;
+        }
+        
         // More lenient rate limit for item usage
         if (detectsImpossibleActionRate(playerData, currentTime, ITEM_USE_RATE_MULTIPLIER)) {
-            recordViolation(playerData, player, "Extreme item use exploit detected: " + 
-                playerData.getRecentActions(currentTime) + " per second");
+            recordViolation(playerData, player, ViolationType.ITEM_USE_RATE, playerData.getRecentActions(currentTime),
+                EXPLOIT_ACTIONS_PER_SECOND * ITEM_USE_RATE_MULTIPLIER * load.getCatchUpScale(), null);
             return false;
         }
         
@@ -321,6 +561,11 @@ public class ActionRateLimiter {
         PlayerActionData playerData = getOrCreatePlayerData(player.getUuid());
         long currentTime = System.currentTimeMillis();
         
+        if (!load.isSampled(player.getUuid())) {
+            playerData.recordGenericAction(currentTime);
+            return true;
+        }
+        
         if (!isWithinReachDistance(player, blockPos, playerData, "block interaction")) {
             return false;
         }
@@ -340,22 +585,34 @@ public class ActionRateLimiter {
         PlayerActionData playerData = getOrCreatePlayerData(player.getUuid());
         long currentTime = System.currentTimeMillis();
         
-        // Validate reach for attacks
-        if (target != null && !isWithinReachDistance(player, target.getBlockPos(), playerData, "attack")) {
-            return false;
+        if (!load.isSampled(player.getUuid())) {
+            playerData.recordAttack(currentTime);
+            return true;
         }
         
+        // Attack reach is measured against the target's hitbox by the CombatAnalyzer
+        
         // Check for killaura pattern
-        if (detectsKillAuraPattern(playerData, currentTime)) {
-            recordViolation(playerData, player, "Killaura detected: " + 
-                playerData.getRecentAttacks(currentTime) + " attacks per second");
+        if (load.allowsHeuristics() && detectsKillAuraPattern(playerData, currentTime)) {
+            recordViolation(playerData, player, ViolationType.KILLAURA,
+                playerData.getRecentAttacks(currentTime), KILLAURA_DETECTION_THRESHOLD, null);
             return false;
         }
         
         // Check for impossible attack speed
         if (detectsImpossibleAttackSpeed(playerData)) {
-            recordViolation(playerData, player, "Impossible attack speed: " + 
-                playerData.getTimeBetweenLastTwoAttacks() + "ms");
+            recordViolation(playerData, player, ViolationType.ATTACK_SPEED,
+                playerData.getTimeBetweenLastTwoAttacks(), EXPLOIT_ATTACK_SPEED_MS / load.getCatchUpScale(), null);
+            return false;
+        }
+        
+        // Check for machine-regular clicking below the rate limits
+        ClickPattern clicks = playerData.getClickPattern();
+        if (load.allowsHeuristics() && detectsRegularClicking(clicks)) {
+            recordViolation(playerData, player, ViolationType.AUTOCLICKER, clicks.intervalDeviation(),
+                MIN_CLICK_DEVIATION_MS, String.format("%.2f bits", clicks.entropyBits()));
+            // Judge the next streak from scratch rather than flagging every following click
+            clicks.clear();
             return false;
         }
         
@@ -363,6 +620,55 @@ public class ActionRateLimiter {
         return true;
     }
     
+    // ==================== PACKET RATE LIMITING ====================
+    
+    /**
+     * Checks a client packet against the player's token bucket for its kind. Called from the
+     * network thread before the packet is handed to the server thread, so a flood is dropped
+     * without being decoded into game actions. At most one flood report per kind per second.
+     * 
+     * @return false if the packet should be dropped
+     */
+    public boolean allowPacket(ServerPlayerEntity player, PacketKind kind) {
+        PacketBuckets buckets = getOrCreatePlayerData(player.getUuid()).getPacketBuckets();
+        long now = System.nanoTime();
+        if (buckets.tryTake(kind, now)) {
+            packetsAllowed[kind.ordinal()].increment();
+            return true;
+        }
+        
+        packetsDropped[kind.ordinal()].increment();
+        int dropped = buckets.takeFloodReport(kind, now);
+        if (dropped > 0) {
+            riskScores.recordViolation(player.getUuid(), 1.0);
+            violations.publish(new ViolationEvent(System.currentTimeMillis(), player.getUuid(),
+                player.getGameProfile().getName(), ViolationType.PACKET_FLOOD, dropped, kind.perSecond,
+                kind, buckets.getFloodReports()));
+        }
+        return false;
+    }
+    
+    /**
+     * Packets allowed and dropped per kind since startup, one line per kind.
+     */
+    public List<String> getPacketCounters() {
+        List<String> lines = new ArrayList<>();
+        for (PacketKind kind : PacketKind.values()) {
+            lines.add(String.format("%s: %d allowed, %d dropped (limit %.0f/s, burst %.0f)",
+                kind, packetsAllowed[kind.ordinal()].sum(), packetsDropped[kind.ordinal()].sum(),
+                kind.perSecond, kind.burst));
+        }
+        return lines;
+    }
+    
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[PacketKind.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+    
     // ==================== ADMIN/DEBUG METHODS ====================
     
     public int getViolationCount(ServerPlayerEntity player) {
@@ -396,17 +702,24 @@ public class ActionRateLimiter {
     }
     
     /**
-     * Performs routine maintenance - should be called periodically
+     * Performs routine maintenance - should be called every tick. A cleanup pass starts every
+     * CLEANUP_INTERVAL_MS and is spread over as many calls as it takes at MAINTENANCE_SLICE players each.
      */
     public void performMaintenance() {
         long currentTime = System.currentTimeMillis();
         
-        if (shouldPerformMaintenance(currentTime)) {
-            cleanupExpiredData(currentTime);
-            decayViolations(currentTime);
-            removeInactivePlayers(currentTime);
+        if (maintenanceCursor == null) {
+            if (!shouldPerformMaintenance(currentTime)) return;
+            maintenanceCursor = playerActionData.values().iterator();
             lastMaintenanceTime = currentTime;
         }
+        
+        for (int i = 0; i < MAINTENANCE_SLICE && maintenanceCursor.hasNext(); i++) {
+            maintainPlayer(maintenanceCursor.next(), currentTime);
+        }
+        if (!maintenanceCursor.hasNext()) {
+            maintenanceCursor = null;
+        }
     }
     
     // ==================== DETECTION HELPER METHODS ====================
@@ -419,18 +732,31 @@ public class ActionRateLimiter {
         return playerData.getRecentAttacks(currentTime) > KILLAURA_DETECTION_THRESHOLD;
     }
     
+    // Human clicking jitters by tens of milliseconds; autoclickers without randomization barely at all.
+    // Only judged in full load mode, where attack packets are handled close to when they arrive
+    private boolean detectsRegularClicking(ClickPattern clicks) {
+        if (!clicks.isFull() || clicks.meanInterval() > REGULAR_CLICK_MAX_MEAN_MS) {
+            return false;
+        }
+        return clicks.intervalDeviation() < MIN_CLICK_DEVIATION_MS
+            || clicks.entropyBits() < MIN_CLICK_ENTROPY_BITS;
+    }
+    
+    // Packets queued during a slow tick are processed back to back, so intervals shrink and rates
+    // rise by up to the catch-up scale without the client doing anything wrong
+    
     private boolean detectsImpossibleBreakSpeed(PlayerActionData playerData) {
         long interval = playerData.getTimeBetweenLastTwoBlockBreaks();
-        return interval < EXPLOIT_BREAK_SPEED_MS && interval > 0;
+        return interval < EXPLOIT_BREAK_SPEED_MS / load.getCatchUpScale() && interval > 0;
     }
     
     private boolean detectsImpossibleAttackSpeed(PlayerActionData playerData) {
         long interval = playerData.getTimeBetweenLastTwoAttacks();
-        return interval < EXPLOIT_ATTACK_SPEED_MS && interval > 0;
+        return interval < EXPLOIT_ATTACK_SPEED_MS / load.getCatchUpScale() && interval > 0;
     }
     
     private boolean detectsImpossibleActionRate(PlayerActionData playerData, long currentTime, int multiplier) {
-        return playerData.getRecentActions(currentTime) > (EXPLOIT_ACTIONS_PER_SECOND * multiplier);
+        return playerData.getRecentActions(currentTime) > (EXPLOIT_ACTIONS_PER_SECOND * multiplier * load.getCatchUpScale());
     }
     
     // ==================== UTILITY HELPER METHODS ====================
@@ -449,48 +775,57 @@ public class ActionRateLimiter {
             return true; // Cannot validate without position
         }
         
-        long currentTime = System.currentTimeMillis();
-        
-        // Update cached position if needed
-        if (playerData.shouldUpdatePosition(currentTime)) {
-            playerData.updateCachedPosition(player.getX(), player.getY(), player.getZ(), currentTime);
+        double maxDistance = player.getBlockInteractionRange() + REACH_TOLERANCE_BLOCKS;
+        double distance = distanceToBlock(player.getX(), player.getEyeY(), player.getZ(), targetPos);
+        if (distance <= maxDistance) {
+            return true;
         }
         
-        double distance = playerData.getDistanceToBlock(targetPos);
-        if (distance > MAX_INTERACTION_DISTANCE_BLOCKS) {
-            recordViolation(playerData, player, String.format("Obvious reach hack: %.1f blocks (%s)", 
-                distance, actionType));
-            return false;
+        // The client may have acted from where it was a round trip ago; one indexed read into the pose history
+        PoseHistory poses = poseTracker.get(player.getUuid());
+        if (poses != null) {
+            int age = Math.min(poses.size() - 1, PoseTracker.rewindTicks(player));
+            distance = Math.min(distance,
+                distanceToBlock(poses.x(age), poses.y(age) + poses.eyeHeight(age), poses.z(age), targetPos));
+            if (distance <= maxDistance) {
+                return true;
+            }
         }
         
-        return true;
+        recordViolation(playerData, player, ViolationType.REACH, distance, maxDistance, actionType);
+        return false;
+    }
+    
+    /** Distance from an eye position to the nearest point of a block's cube. */
+    private static double distanceToBlock(double eyeX, double eyeY, double eyeZ, BlockPos pos) {
+        double dx = Math.max(0.0, Math.max(pos.getX() - eyeX, eyeX - (pos.getX() + 1)));
+        double dy = Math.max(0.0, Math.max(pos.getY() - eyeY, eyeY - (pos.getY() + 1)));
+        double dz = Math.max(0.0, Math.max(pos.getZ() - eyeZ, eyeZ - (pos.getZ() + 1)));
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
     }
     
     private PlayerActionData getOrCreatePlayerData(UUID playerId) {
         return playerActionData.computeIfAbsent(playerId, k -> new PlayerActionData());
     }
     
-    private void recordViolation(PlayerActionData playerData, ServerPlayerEntity player, String reason) {
+    private void recordViolation(PlayerActionData playerData, ServerPlayerEntity player, ViolationType type,
+                                 double value, double limit, Object context) {
         long currentTime = System.currentTimeMillis();
         playerData.recordSevereViolation(currentTime);
+        riskScores.recordViolation(player.getUuid(), 1.0);
         
-        logViolation(player, reason, playerData.getSevereViolationCount());
-        notifyPlayer(player, playerData.getSevereViolationCount());
+        int totalViolations = playerData.getSevereViolationCount();
+        String playerName = player.getGameProfile().getName();
+        violations.publish(new ViolationEvent(currentTime, player.getUuid(), playerName,
+                type, value, limit, context, totalViolations));
+        notifyPlayer(player, totalViolations);
         
         if (playerData.hasExceededViolationThreshold()) {
-            escalateViolation(player);
+            violations.publish(new ViolationEvent(currentTime, player.getUuid(), playerName,
+                    ViolationType.THRESHOLD_EXCEEDED, totalViolations, MAX_SEVERE_VIOLATIONS, null, totalViolations));
         }
     }
     
-    private void logViolation(ServerPlayerEntity player, String reason, int totalViolations) {
-        try {
-            System.out.println(String.format("[AntiCheat] SEVERE VIOLATION by %s: %s (Total: %d)",
-                player.getName().getString(), reason, totalViolations));
-        } catch (Exception e) {
-            System.out.println(String.format("[AntiCheat] SEVERE VIOLATION: %s (Total: %d)", 
-                reason, totalViolations));
-        }
-    }
     
     private void notifyPlayer(ServerPlayerEntity player, int violationCount) {
         try {
@@ -504,35 +839,20 @@ public class ActionRateLimiter {
         }
     }
     
-    private void escalateViolation(ServerPlayerEntity player) {
-        try {
-            System.out.println("[AntiCheat] CRITICAL: Player " + player.getName().getString() + 
-                             " exceeded severe violation threshold - immediate attention required");
-        } catch (Exception e) {
-            System.out.println("[AntiCheat] CRITICAL: Player exceeded severe violation threshold");
-        }
-    }
-    
     // ==================== MAINTENANCE HELPER METHODS ====================
     
     private boolean shouldPerformMaintenance(long currentTime) {
         return currentTime - lastMaintenanceTime > CLEANUP_INTERVAL_MS;
     }
     
-    private void cleanupExpiredData(long currentTime) {
-        playerActionData.values().forEach(data -> data.removeExpiredActions(currentTime));
-    }
-    
-    private void decayViolations(long currentTime) {
-        playerActionData.values().forEach(data -> {
-            if (data.shouldDecayViolation(currentTime)) {
-                data.decayOneViolation();
-            }
-        });
-    }
-    
-    private void removeInactivePlayers(long currentTime) {
-        playerActionData.entrySet().removeIf(entry -> entry.getValue().isPlayerInactive(currentTime));
+    private void maintainPlayer(PlayerActionData data, long currentTime) {
+        data.removeExpiredActions(currentTime);
+        if (data.shouldDecayViolation(currentTime)) {
+            data.decayOneViolation();
+        }
+        if (data.isPlayerInactive(currentTime)) {
+            maintenanceCursor.remove();
+        }
     }
     
     // ==================== BACKWARDS COMPATIBILITY METHODS ====================
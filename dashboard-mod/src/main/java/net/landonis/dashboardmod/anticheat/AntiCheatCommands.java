@@ -1,6 +1,7 @@
 package net.landonis.dashboardmod.anticheat;
 
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.landonis.dashboardmod.DashboardMod;
@@ -12,6 +13,8 @@ import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 
+import java.util.List;
+
 /**
  * Command handler for AntiCheat administration
  */
@@ -42,6 +45,14 @@ public class AntiCheatCommands {
                     .executes(AntiCheatCommands::checkPlayerViolations)))
             .then(CommandManager.literal("status")
                 .executes(AntiCheatCommands::showStatus))
+            .then(CommandManager.literal("budget")
+                .executes(AntiCheatCommands::showBudget)
+                .then(CommandManager.argument("micros", IntegerArgumentType.integer(0, 50_000))
+                    .executes(AntiCheatCommands::setBudget)))
+            .then(CommandManager.literal("deferred")
+                .executes(AntiCheatCommands::showDeferred))
+            .then(CommandManager.literal("packets")
+                .executes(AntiCheatCommands::showPacketCounters))
         );
     }
 
@@ -102,6 +113,12 @@ public class AntiCheatCommands {
                 false
             );
 
+            String loadStatus = AntiCheatHelper.getLoadStatus();
+            context.getSource().sendFeedback(
+                () -> Text.literal("§7[AntiCheat] " + loadStatus),
+                false
+            );
+
             context.getSource().sendFeedback(
                 () -> Text.literal("§7[AntiCheat] Use '/anticheat check <player>' to check specific violations"),
                 false
@@ -113,4 +130,53 @@ public class AntiCheatCommands {
             return 0;
         }
     }
+
+    /**
+     * Show the per-tick anticheat time budget.
+     */
+    private static int showBudget(CommandContext<ServerCommandSource> context) {
+        long micros = AntiCheatHelper.getTickBudgetMicros();
+        context.getSource().sendFeedback(
+            () -> Text.literal("§a[AntiCheat] Tick budget: " + micros + " µs"),
+            false
+        );
+        return 1;
+    }
+
+    /**
+     * Change the per-tick anticheat time budget.
+     */
+    private static int setBudget(CommandContext<ServerCommandSource> context) {
+        int micros = IntegerArgumentType.getInteger(context, "micros");
+        AntiCheatHelper.setTickBudgetMicros(micros);
+        context.getSource().sendFeedback(
+            () -> Text.literal("§a[AntiCheat] Tick budget set to " + micros + " µs"),
+            true
+        );
+        return 1;
+    }
+
+    /**
+     * Show players whose expensive checks are being deferred by the tick budget.
+     */
+    private static int showDeferred(CommandContext<ServerCommandSource> context) {
+        List<String> report = AntiCheatHelper.getDeferralReport();
+        for (String line : report) {
+            context.getSource().sendFeedback(() -> Text.literal("§7[AntiCheat] " + line), false);
+        }
+        if (report.size() == 1) {
+            context.getSource().sendFeedback(() -> Text.literal("§7[AntiCheat] No players are currently deferred"), false);
+        }
+        return 1;
+    }
+
+    /**
+     * Show how many packets of each kind were allowed and dropped by the packet rate limits.
+     */
+    private static int showPacketCounters(CommandContext<ServerCommandSource> context) {
+        for (String line : AntiCheatHelper.getPacketCounters()) {
+            context.getSource().sendFeedback(() -> Text.literal("§7[AntiCheat] " + line), false);
+        }
+        return 1;
+    }
 }
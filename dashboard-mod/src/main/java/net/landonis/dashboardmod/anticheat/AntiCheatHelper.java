@@ -1,6 +1,8 @@
 package net.landonis.dashboardmod.anticheat;
 
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.stat.Stats;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.block.Block;
@@ -8,6 +10,10 @@ import net.minecraft.entity.Entity;
 import net.minecraft.item.Item;
 import net.minecraft.util.Hand;
 
+import java.io.File;
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * Static helper class for integrating anticheat into existing event handlers
  */
@@ -15,6 +21,13 @@ public class AntiCheatHelper {
     
     private static ActionRateLimiter rateLimiter;
     private static MovementAntiCheat movementAntiCheat;
+    private static AntiCheatScheduler scheduler;
+    private static AntiCheatLoad load;
+    private static RiskScores riskScores;
+    private static MovementPipeline movementPipeline;
+    private static ViolationBus violationBus;
+    private static CombatAnalyzer combatAnalyzer;
+    private static PoseTracker poseTracker;
     private static boolean initialized = false;
     
     /**
@@ -22,8 +35,18 @@ public class AntiCheatHelper {
      */
     public static void initialize() {
         if (!initialized) {
-            rateLimiter = new ActionRateLimiter();
-            movementAntiCheat = new MovementAntiCheat();
+            load = new AntiCheatLoad();
+            riskScores = new RiskScores();
+            violationBus = new ViolationBus();
+            violationBus.addSink(new ViolationSinks.Console());
+            violationBus.addSink(new ViolationSinks.LogFile(new File("config/dashboardmod/violations.log")));
+            violationBus.addSink(new ViolationSinks.Dashboard());
+            poseTracker = new PoseTracker();
+            rateLimiter = new ActionRateLimiter(load, riskScores, violationBus, poseTracker);
+            movementAntiCheat = new MovementAntiCheat(riskScores, violationBus);
+            combatAnalyzer = new CombatAnalyzer(poseTracker, load, riskScores, violationBus);
+            scheduler = new AntiCheatScheduler();
+            movementPipeline = new MovementPipeline(movementAntiCheat, scheduler, load, riskScores);
             initialized = true;
             System.out.println("[AntiCheat] Helper initialized with enhanced features");
         }
@@ -66,7 +89,15 @@ public class AntiCheatHelper {
      */
     public static boolean canAttack(ServerPlayerEntity player, Entity target) {
         ensureInitialized();
-        return rateLimiter.canAttack(player, target);
+        return rateLimiter.canAttack(player, target) && combatAnalyzer.canAttack(player, target);
+    }
+    
+    /**
+     * Rate limit a client packet before the game handles it - called from the network handler mixin
+     * on the network thread. Allows everything until the anticheat is initialized.
+     */
+    public static boolean allowPacket(ServerPlayerEntity player, ActionRateLimiter.PacketKind kind) {
+        return !initialized || rateLimiter.allowPacket(player, kind);
     }
     
     /**
@@ -102,12 +133,88 @@ public class AntiCheatHelper {
     }
     
     /**
-     * Perform maintenance - call every second from your server tick handler
+     * Tick time measurement for load shedding - call at the start of every server tick,
+     * before dispatchMovementChecks
+     */
+    public static void onServerTickStart() {
+        if (initialized) {
+            load.onTickStart();
+        }
+    }
+    
+    /**
+     * Call at the end of every server tick, before any other anticheat work
+     */
+    public static void onServerTickEnd() {
+        if (initialized) {
+            load.onTickEnd();
+        }
+    }
+    
+    /**
+     * Snapshot one move for off-thread validation - called by the move packet mixin for every
+     * packet that moved the player, on the server thread
+     */
+    public static void captureMovement(ServerPlayerEntity player, Vec3d fromPos, Vec3d toPos) {
+        if (initialized) {
+            movementPipeline.capture(player, fromPos, toPos);
+        }
+    }
+    
+    /**
+     * Record the player's pose for the reach and combat checks - call once per tick for every player
+     */
+    public static void recordPose(ServerPlayerEntity player) {
+        ensureInitialized();
+        poseTracker.record(player);
+    }
+    
+    /**
+     * Start validating the moves captured since the last tick on the worker pool - call at the
+     * start of every tick
+     */
+    public static void dispatchMovementChecks() {
+        ensureInitialized();
+        movementPipeline.dispatch();
+    }
+    
+    /**
+     * Apply the verdicts of the last dispatch - call at the end of the same tick.
+     * onViolation is called for every player whose move failed validation.
+     */
+    public static void applyMovementVerdicts(MinecraftServer server, Consumer<ServerPlayerEntity> onViolation) {
+        if (initialized) {
+            movementPipeline.drain(server, onViolation);
+        }
+    }
+    
+    /**
+     * Notify the movement checks that a block changed so cached block contexts re-read it
+     */
+    public static void onBlockChanged(BlockPos pos) {
+        if (initialized) {
+            movementAntiCheat.invalidateBlock(pos);
+        }
+    }
+    
+    /**
+     * Perform maintenance - call every tick from your server tick handler; each call does a small slice
      */
     public static void performMaintenance() {
         if (initialized) {
             rateLimiter.performMaintenance();
             movementAntiCheat.performMaintenance();
+            riskScores.performMaintenance();
+        }
+    }
+    
+    /**
+     * Seed the player's risk score - call when a player joins
+     */
+    public static void onPlayerJoin(ServerPlayerEntity player) {
+        if (initialized) {
+            int playTime = player.getStatHandler().getStat(Stats.CUSTOM, Stats.PLAY_TIME);
+            riskScores.onJoin(player.getUuid(), playTime);
         }
     }
     
@@ -118,6 +225,27 @@ public class AntiCheatHelper {
         if (initialized) {
             rateLimiter.removePlayer(player);
             movementAntiCheat.removePlayer(player);
+            combatAnalyzer.removePlayer(player);
+            poseTracker.remove(player.getUuid());
+            scheduler.forgetPlayer(player.getUuid());
+        }
+    }
+    
+    /**
+     * Start delivering violation events - call when the server has started
+     */
+    public static void start() {
+        ensureInitialized();
+        violationBus.start();
+    }
+    
+    /**
+     * Stop the movement workers and flush pending violation events - call when the server stops
+     */
+    public static void shutdown() {
+        if (initialized) {
+            movementPipeline.shutdown();
+            violationBus.stop();
         }
     }
     
@@ -134,6 +262,19 @@ public class AntiCheatHelper {
         return movementAntiCheat.getViolationCount(player);
     }
     
+    /**
+     * Packets allowed and dropped per packet kind, for monitoring
+     */
+    public static List<String> getPacketCounters() {
+        ensureInitialized();
+        return rateLimiter.getPacketCounters();
+    }
+    
+    public static int getCombatViolations(ServerPlayerEntity player) {
+        ensureInitialized();
+        return combatAnalyzer.getViolationCount(player);
+    }
+    
     /**
      * Enhanced: Get detailed player stats from the rate limiter
      */
@@ -142,6 +283,45 @@ public class AntiCheatHelper {
         return rateLimiter.getPlayerStats(player);
     }
     
+    /**
+     * Risk score and the resulting expensive-check interval for a player
+     */
+    public static String getRiskSummary(ServerPlayerEntity player) {
+        ensureInitialized();
+        return String.format("Risk %.2f (expensive checks every %d ticks)",
+                riskScores.getScore(player.getUuid()), riskScores.getCheckInterval(player.getUuid()));
+    }
+    
+    /**
+     * Current load-shedding mode with the tick time and catch-up scale it was chosen from
+     */
+    public static String getLoadStatus() {
+        ensureInitialized();
+        return String.format("Mode: %s | %.1f mspt | catch-up scale %.2f | last change: %s",
+                load.getMode(), load.getAverageMspt(), load.getCatchUpScale(), load.getLastTransition());
+    }
+    
+    /**
+     * Per-tick anticheat time budget in microseconds
+     */
+    public static long getTickBudgetMicros() {
+        ensureInitialized();
+        return scheduler.getBudgetMicros();
+    }
+    
+    public static void setTickBudgetMicros(long micros) {
+        ensureInitialized();
+        scheduler.setBudgetMicros(micros);
+    }
+    
+    /**
+     * Players whose expensive checks are currently being deferred by the tick budget
+     */
+    public static List<String> getDeferralReport() {
+        ensureInitialized();
+        return scheduler.getDeferralReport();
+    }
+    
     /**
      * Reset violations for a player
      */
@@ -149,6 +329,7 @@ public class AntiCheatHelper {
         if (initialized) {
             rateLimiter.resetViolations(player);
             movementAntiCheat.resetViolations(player);
+            combatAnalyzer.resetViolations(player);
         }
     }
     
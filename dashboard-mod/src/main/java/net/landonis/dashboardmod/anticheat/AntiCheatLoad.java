@@ -0,0 +1,151 @@
+package net.landonis.dashboardmod.anticheat;
+
+import net.landonis.dashboardmod.DashboardWebSocketClient;
+
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Degrades the anticheat when the server is behind, so the checks do not add to the lag.
+ *
+ * Tick time is measured from the tick events and smoothed; the mode steps up as it rises:
+ * <ul>
+ *   <li>{@link Mode#FULL}: every check.</li>
+ *   <li>{@link Mode#CHEAP_ONLY}: no expensive scans (phase checks) and no burst heuristics
+ *       (nuker/killaura patterns), which catch-up ticks trip falsely.</li>
+ *   <li>{@link Mode#SAMPLING}: cheap checks for a rotating quarter of the players each tick.</li>
+ * </ul>
+ * Modes step back down only after the tick time has stayed below the threshold, minus some
+ * hysteresis, for {@link #MIN_MODE_TICKS}. Independently of the mode, {@link #getCatchUpScale()}
+ * loosens action rate thresholds when ticks are more than 50 ms apart.
+ *
+ * Transitions are logged and pushed to the dashboard. Server thread only, apart from the volatile
+ * reads of the mode.
+ */
+public class AntiCheatLoad {
+
+    public enum Mode {
+        FULL,
+        CHEAP_ONLY,
+        SAMPLING
+    }
+
+    private static final double TICK_MS = 50.0;
+    private static final double CHEAP_ONLY_MSPT = 40.0;
+    private static final double SAMPLING_MSPT = 50.0;
+    private static final double HYSTERESIS_MSPT = 5.0;
+    private static final double SMOOTHING = 0.1;        // weight of the newest tick in the average
+    static final double MAX_CATCH_UP_SCALE = 4.0;       // also sizes the rate limiter's action windows
+    private static final int MIN_MODE_TICKS = 100;       // 5 seconds before stepping down
+    private static final int SAMPLE_PERIOD = 4;          // SAMPLING checks 1 in SAMPLE_PERIOD players per tick
+
+    private volatile Mode mode = Mode.FULL;
+    private volatile double catchUpScale = 1.0;
+    private volatile double averageMspt = 0.0;
+    private volatile String lastTransition = "none";
+
+    private long tickStartNanos = 0;
+    private long lastTickEndNanos = 0;
+    private long tick = 0;
+    private long modeSinceTick = 0;
+
+    // ===== Tick measurement =====
+
+    public void onTickStart() {
+        tickStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Records the tick that just ran and updates the mode. Call at the end of the tick, before the
+     * anticheat does its own work, so that work is not counted against the server.
+     */
+    public void onTickEnd() {
+        long now = System.nanoTime();
+        tick++;
+
+        if (tickStartNanos != 0) {
+            double mspt = (now - tickStartNanos) / 1_000_000.0;
+            averageMspt = averageMspt == 0.0 ? mspt : averageMspt + SMOOTHING * (mspt - averageMspt);
+        }
+
+        // Packets queued over a longer gap are handled back to back, so rates look higher
+        if (lastTickEndNanos != 0) {
+            double intervalMs = (now - lastTickEndNanos) / 1_000_000.0;
+            catchUpScale = Math.max(1.0, Math.min(MAX_CATCH_UP_SCALE, intervalMs / TICK_MS));
+        }
+        lastTickEndNanos = now;
+
+        updateMode();
+    }
+
+    private void updateMode() {
+        double mspt = averageMspt;
+        Mode target;
+        if (mspt >= SAMPLING_MSPT) {
+            target = Mode.SAMPLING;
+        } else if (mspt >= CHEAP_ONLY_MSPT) {
+            target = Mode.CHEAP_ONLY;
+        } else {
+            target = Mode.FULL;
+        }
+
+        Mode current = mode;
+        if (target.ordinal() > current.ordinal()) {
+            switchTo(target, mspt);
+        } else if (target.ordinal() < current.ordinal() && tick - modeSinceTick >= MIN_MODE_TICKS) {
+            // Step down one level at a time, and only once clearly below the current level's threshold
+            double threshold = current == Mode.SAMPLING ? SAMPLING_MSPT : CHEAP_ONLY_MSPT;
+            if (mspt < threshold - HYSTERESIS_MSPT) {
+                switchTo(Mode.values()[current.ordinal() - 1], mspt);
+            }
+        }
+    }
+
+    private void switchTo(Mode target, double mspt) {
+        Mode previous = mode;
+        mode = target;
+        modeSinceTick = tick;
+        lastTransition = String.format("%s -> %s at %.1f mspt, %s", previous, target, mspt,
+                LocalTime.now().withNano(0));
+
+        System.out.println(String.format("[AntiCheat] Load mode %s -> %s (%.1f mspt)", previous, target, mspt));
+        DashboardWebSocketClient.sendAntiCheatMode(target.name(), previous.name(), mspt);
+    }
+
+    // ===== Queries =====
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public boolean allowsExpensiveChecks() {
+        return mode == Mode.FULL;
+    }
+
+    public boolean allowsHeuristics() {
+        return mode == Mode.FULL;
+    }
+
+    /**
+     * Whether this player's checks run this tick. Always true outside SAMPLING mode; in it, a
+     * different quarter of the players is checked each tick.
+     */
+    public boolean isSampled(UUID playerId) {
+        return mode != Mode.SAMPLING || Math.floorMod(playerId.hashCode() + tick, SAMPLE_PERIOD) == 0;
+    }
+
+    /**
+     * Factor (at least 1) by which per-tick movement limits are loosened for the last tick.
+     */
+    public double getCatchUpScale() {
+        return catchUpScale;
+    }
+
+    public double getAverageMspt() {
+        return averageMspt;
+    }
+
+    public String getLastTransition() {
+        return lastTransition;
+    }
+}
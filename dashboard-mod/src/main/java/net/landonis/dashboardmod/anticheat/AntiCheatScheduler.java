@@ -0,0 +1,121 @@
+package net.landonis.dashboardmod.anticheat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-tick time budget for the anticheat work done on the server thread.
+ *
+ * Cheap checks always run. Expensive ones (currently the swept-box phase scan) are charged to the
+ * budget and only run while it lasts. Moves are captured in the order their packets arrive, so
+ * instead of reordering players, those who missed out are deferred and, until their next scan
+ * runs, only they may use the second half of the budget. Deferrals are tracked per player for
+ * {@link #getDeferralReport()}.
+ *
+ * The budget defaults to the {@code dashboardmod.anticheat.tickBudgetMicros} system property and
+ * can be changed at runtime with {@code /anticheat budget}. Server thread only.
+ */
+public class AntiCheatScheduler {
+    private static final long DEFAULT_BUDGET_MICROS = 2_000;
+
+    private volatile long budgetNanos = Long.getLong("dashboardmod.anticheat.tickBudgetMicros", DEFAULT_BUDGET_MICROS) * 1_000L;
+
+    private long tick = 0;
+    private long spentNanos = 0;
+    private int deferredThisTick = 0;
+    private int deferredLastTick = 0;
+    private long totalDeferrals = 0;
+
+    private final Map<UUID, Deferral> deferrals = new HashMap<>();
+
+    private static final class Deferral {
+        final String playerName;
+        final long sinceTick;
+        int ticks;
+
+        Deferral(String playerName, long sinceTick) {
+            this.playerName = playerName;
+            this.sinceTick = sinceTick;
+        }
+    }
+
+    // ===== Tick =====
+
+    /**
+     * Starts a fresh budget for the moves captured until the next call.
+     */
+    public void beginTick() {
+        tick++;
+        spentNanos = 0;
+        deferredLastTick = deferredThisTick;
+        deferredThisTick = 0;
+    }
+
+    /**
+     * Asks for an expensive check for the player. Returns false, and records a deferral, once the
+     * budget is spent; while anyone is deferred, others only get the first half of it.
+     */
+    public boolean tryExpensive(UUID playerId, String playerName) {
+        boolean reserved = !deferrals.isEmpty() && !deferrals.containsKey(playerId);
+        if (spentNanos < (reserved ? budgetNanos / 2 : budgetNanos)) {
+            markUpToDate(playerId);
+            return true;
+        }
+
+        deferredThisTick++;
+        totalDeferrals++;
+        deferrals.computeIfAbsent(playerId, id -> new Deferral(playerName, tick)).ticks++;
+        return false;
+    }
+
+    /**
+     * Records that the player needed no expensive check this tick, ending any deferral.
+     */
+    public void markUpToDate(UUID playerId) {
+        if (!deferrals.isEmpty()) {
+            deferrals.remove(playerId);
+        }
+    }
+
+    /**
+     * Charges time spent on an expensive check that {@link #tryExpensive} allowed.
+     */
+    public void charge(long nanos) {
+        spentNanos += nanos;
+    }
+
+    public void forgetPlayer(UUID playerId) {
+        deferrals.remove(playerId);
+    }
+
+    // ===== Configuration and reporting =====
+
+    public long getBudgetMicros() {
+        return budgetNanos / 1_000L;
+    }
+
+    public void setBudgetMicros(long micros) {
+        budgetNanos = Math.max(0, micros) * 1_000L;
+    }
+
+    /**
+     * Players whose expensive checks are currently deferred, longest-waiting first.
+     */
+    public List<String> getDeferralReport() {
+        List<Map.Entry<UUID, Deferral>> waiting = new ArrayList<>(deferrals.entrySet());
+        waiting.sort((a, b) -> Long.compare(a.getValue().sinceTick, b.getValue().sinceTick));
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("Budget %d µs/tick | deferred last tick: %d | total deferrals: %d",
+                getBudgetMicros(), deferredLastTick, totalDeferrals));
+        for (Map.Entry<UUID, Deferral> entry : waiting) {
+            Deferral deferral = entry.getValue();
+            report.add(String.format("%s: deferred %d times over the last %d ticks",
+                    deferral.playerName, deferral.ticks, tick - deferral.sinceTick + 1));
+        }
+        return report;
+    }
+}
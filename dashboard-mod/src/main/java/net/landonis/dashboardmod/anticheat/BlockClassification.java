@@ -0,0 +1,149 @@
+package net.landonis.dashboardmod.anticheat;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.FluidBlock;
+import net.minecraft.block.PowderSnowBlock;
+import net.minecraft.block.ScaffoldingBlock;
+import net.minecraft.block.TrapdoorBlock;
+import net.minecraft.block.enums.BlockHalf;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.registry.tag.BlockTags;
+import net.minecraft.registry.tag.FluidTags;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.world.EmptyBlockView;
+
+/**
+ * Movement-relevant classification of every block state, computed once from the block state
+ * registry when the server starts.
+ *
+ * Each state's raw id indexes a flags byte and a step height, so the anticheat checks never
+ * repeat {@code ==}/{@code instanceof} chains per block. Solidity and step height come from the
+ * state's collision shape, so modded blocks are classified the same way as vanilla ones.
+ * States whose collision depends on the entity or world (scaffolding, powder snow, shapes that
+ * cannot be computed without a world) are flagged {@link #DYNAMIC_SHAPE} so callers still ask
+ * the world for the real shape.
+ */
+public final class BlockClassification {
+
+    /** Stands on it: has collision and is neither a fluid nor climbable */
+    public static final int SOLID = 1;
+    public static final int WATER = 1 << 1;
+    public static final int LAVA = 1 << 2;
+    public static final int CLIMBABLE = 1 << 3;
+    /** Has a non-empty collision shape (including climbables like ladders) */
+    public static final int COLLIDES = 1 << 4;
+    /** Collision extends above one block, like fences and walls */
+    public static final int BARRIER = 1 << 5;
+    /** Closed trapdoor in the top half of its block */
+    public static final int CLOSED_TOP_TRAPDOOR = 1 << 6;
+    /** Collision shape depends on context; query the world for the real shape */
+    public static final int DYNAMIC_SHAPE = 1 << 7;
+
+    private static byte[] flagTable = new byte[0];
+    private static float[] stepHeightTable = new float[0];
+
+    private BlockClassification() {}
+
+    /**
+     * Classifies every registered block state. Call once the registries are frozen (server start).
+     */
+    public static void build() {
+        long start = System.nanoTime();
+        int size = Block.STATE_IDS.size();
+        byte[] flags = new byte[size];
+        float[] stepHeights = new float[size];
+        int dynamic = 0;
+
+        for (BlockState state : Block.STATE_IDS) {
+            int id = Block.getRawIdFromState(state);
+            if (id < 0 || id >= size) continue;
+            int f = classify(state);
+            flags[id] = (byte) f;
+            stepHeights[id] = (float) computeStepHeight(state);
+            if ((f & DYNAMIC_SHAPE) != 0) dynamic++;
+        }
+
+        flagTable = flags;
+        stepHeightTable = stepHeights;
+        System.out.println(String.format("[AntiCheat] Classified %d block states (%d with dynamic shapes) in %.1f ms",
+            size, dynamic, (System.nanoTime() - start) / 1_000_000.0));
+    }
+
+    // ==================== LOOKUPS ====================
+
+    public static int flags(BlockState state) {
+        int id = Block.getRawIdFromState(state);
+        byte[] table = flagTable;
+        return id >= 0 && id < table.length ? table[id] & 0xFF : classify(state);
+    }
+
+    public static double stepHeight(BlockState state) {
+        int id = Block.getRawIdFromState(state);
+        float[] table = stepHeightTable;
+        return id >= 0 && id < table.length ? table[id] : computeStepHeight(state);
+    }
+
+    public static boolean is(BlockState state, int flag) {
+        return (flags(state) & flag) != 0;
+    }
+
+    // ==================== CLASSIFICATION ====================
+
+    private static int classify(BlockState state) {
+        if (state.isAir()) return 0;
+
+        Block block = state.getBlock();
+        int f = 0;
+
+        if (block instanceof FluidBlock) {
+            FluidState fluid = state.getFluidState();
+            if (fluid.isIn(FluidTags.WATER)) f |= WATER;
+            if (fluid.isIn(FluidTags.LAVA)) f |= LAVA;
+        }
+
+        boolean climbable = state.isIn(BlockTags.CLIMBABLE);
+        if (climbable) f |= CLIMBABLE;
+
+        VoxelShape shape = staticCollisionShape(state);
+        boolean dynamic = shape == null || block instanceof ScaffoldingBlock || block instanceof PowderSnowBlock;
+        if (dynamic) {
+            f |= DYNAMIC_SHAPE | COLLIDES;
+        } else if (!shape.isEmpty()) {
+            f |= COLLIDES;
+            if (shape.getMax(Direction.Axis.Y) > 1.0) f |= BARRIER;
+        }
+
+        if ((f & COLLIDES) != 0 && (f & (WATER | LAVA)) == 0 && !climbable) {
+            f |= SOLID;
+        }
+
+        if (block instanceof TrapdoorBlock) {
+            try {
+                if (!state.get(TrapdoorBlock.OPEN) && state.get(TrapdoorBlock.HALF) == BlockHalf.TOP) {
+                    f |= CLOSED_TOP_TRAPDOOR;
+                }
+            } catch (IllegalArgumentException e) {
+                // Modded trapdoor without the vanilla properties
+            }
+        }
+        return f;
+    }
+
+    private static double computeStepHeight(BlockState state) {
+        VoxelShape shape = staticCollisionShape(state);
+        if (shape == null) return 1.0; // unknown: assume a full block
+        return shape.isEmpty() ? 0.0 : shape.getMax(Direction.Axis.Y);
+    }
+
+    /** Collision shape outside any world, or null if the block needs a world to compute it. */
+    private static VoxelShape staticCollisionShape(BlockState state) {
+        try {
+            return state.getCollisionShape(EmptyBlockView.INSTANCE, BlockPos.ORIGIN);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package net.landonis.dashboardmod.anticheat;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.shape.VoxelShape;
+
+/**
+ * Cached 3x3x3 window of block classifications around one player.
+ *
+ * Each cell stores its {@link BlockClassification} flags, the step height of the block and its
+ * collision bounding box, so a movement check can be answered from primitive arrays instead of
+ * 27 world lookups. When the player crosses a block boundary the window slides: cells that are
+ * still inside are copied across and only the newly exposed ones are read from the world.
+ *
+ * Block changes reported through {@link #invalidate(BlockPos)} mark single cells stale. Changes
+ * no event reports (fluids, pistons, explosions) are picked up by a full re-read every
+ * {@link #FULL_REFRESH_INTERVAL} updates.
+ */
+public class BlockWindow {
+    static final int CELLS = 27;
+
+    // Set next to the classification flags once the cell's collision bounds have been cached
+    private static final int HAS_BOUNDS = 1 << 8;
+    // Set next to the classification flags for air cells
+    static final int AIR = 1 << 9;
+
+    private static final int FULL_REFRESH_INTERVAL = 20; // updates, i.e. about once a second
+
+    private ServerWorld world;
+    private int centerX, centerY, centerZ;
+    private boolean valid = false;
+    private int updatesSinceRefresh = 0;
+    private int staleMask = 0; // one bit per cell index
+
+    // Double-buffered so sliding the window never allocates
+    private int[] flags = new int[CELLS];
+    private double[] stepHeights = new double[CELLS];
+    private double[] boxes = new double[CELLS * 6]; // world-space collision bounds: minX, minY, minZ, maxX, maxY, maxZ
+    private int[] spareFlags = new int[CELLS];
+    private double[] spareStepHeights = new double[CELLS];
+    private double[] spareBoxes = new double[CELLS * 6];
+
+    private final BlockPos.Mutable cursor = new BlockPos.Mutable();
+
+    static int index(int dx, int dy, int dz) {
+        return ((dx + 1) * 3 + (dy + 1)) * 3 + (dz + 1);
+    }
+
+    static int offsetY(int index) {
+        return (index / 3) % 3 - 1;
+    }
+
+    // ===== Updating =====
+
+    /**
+     * Re-centers the window on the given block, reading only the cells that are new or stale.
+     */
+    public void moveTo(ServerWorld world, int x, int y, int z) {
+        int dx = x - centerX;
+        int dy = y - centerY;
+        int dz = z - centerZ;
+
+        if (!valid || world != this.world || ++updatesSinceRefresh >= FULL_REFRESH_INTERVAL
+                || Math.abs(dx) > 2 || Math.abs(dy) > 2 || Math.abs(dz) > 2) {
+            this.world = world;
+            centerX = x;
+            centerY = y;
+            centerZ = z;
+            for (int i = 0; i < CELLS; i++) {
+                readCell(i, flags, stepHeights, boxes);
+            }
+            valid = true;
+            updatesSinceRefresh = 0;
+            staleMask = 0;
+            return;
+        }
+
+        if (dx == 0 && dy == 0 && dz == 0) {
+            // Same cells as last time; only re-read what block events invalidated
+            while (staleMask != 0) {
+                int i = Integer.numberOfTrailingZeros(staleMask);
+                staleMask &= staleMask - 1;
+                readCell(i, flags, stepHeights, boxes);
+            }
+            return;
+        }
+
+        centerX = x;
+        centerY = y;
+        centerZ = z;
+        for (int ox = -1; ox <= 1; ox++) {
+            for (int oy = -1; oy <= 1; oy++) {
+                for (int oz = -1; oz <= 1; oz++) {
+                    int target = index(ox, oy, oz);
+                    int px = ox + dx, py = oy + dy, pz = oz + dz;
+                    boolean reusable = px >= -1 && px <= 1 && py >= -1 && py <= 1 && pz >= -1 && pz <= 1
+                            && (staleMask & (1 << index(px, py, pz))) == 0;
+                    if (reusable) {
+                        int source = index(px, py, pz);
+                        spareFlags[target] = flags[source];
+                        spareStepHeights[target] = stepHeights[source];
+                        System.arraycopy(boxes, source * 6, spareBoxes, target * 6, 6);
+                    } else {
+                        readCell(target, spareFlags, spareStepHeights, spareBoxes);
+                    }
+                }
+            }
+        }
+
+        int[] f = flags; flags = spareFlags; spareFlags = f;
+        double[] s = stepHeights; stepHeights = spareStepHeights; spareStepHeights = s;
+        double[] b = boxes; boxes = spareBoxes; spareBoxes = b;
+        staleMask = 0;
+    }
+
+    /**
+     * Marks the cell at this position stale if it is inside the window.
+     */
+    public void invalidate(BlockPos pos) {
+        int dx = pos.getX() - centerX;
+        int dy = pos.getY() - centerY;
+        int dz = pos.getZ() - centerZ;
+        if (dx >= -1 && dx <= 1 && dy >= -1 && dy <= 1 && dz >= -1 && dz <= 1) {
+            staleMask |= 1 << index(dx, dy, dz);
+        }
+    }
+
+    public void reset() {
+        valid = false;
+        world = null;
+    }
+
+    private void readCell(int i, int[] flagsOut, double[] stepOut, double[] boxesOut) {
+        int ox = i / 9 - 1;
+        int oy = (i / 3) % 3 - 1;
+        int oz = i % 3 - 1;
+        cursor.set(centerX + ox, centerY + oy, centerZ + oz);
+        BlockState state = world.getBlockState(cursor);
+
+        int cellFlags = BlockClassification.flags(state);
+        if (state.isAir()) cellFlags |= AIR;
+        if ((cellFlags & BlockClassification.COLLIDES) != 0) {
+            VoxelShape shape = state.getCollisionShape(world, cursor);
+            if (!shape.isEmpty()) {
+                Box bounds = shape.getBoundingBox();
+                int o = i * 6;
+                boxesOut[o] = bounds.minX + cursor.getX();
+                boxesOut[o + 1] = bounds.minY + cursor.getY();
+                boxesOut[o + 2] = bounds.minZ + cursor.getZ();
+                boxesOut[o + 3] = bounds.maxX + cursor.getX();
+                boxesOut[o + 4] = bounds.maxY + cursor.getY();
+                boxesOut[o + 5] = bounds.maxZ + cursor.getZ();
+                cellFlags |= HAS_BOUNDS;
+            }
+        }
+        flagsOut[i] = cellFlags;
+        stepOut[i] = (cellFlags & BlockClassification.SOLID) != 0 ? BlockClassification.stepHeight(state) : 0.0;
+    }
+
+    // ===== Reading =====
+
+    boolean has(int index, int flag) {
+        return (flags[index] & flag) != 0;
+    }
+
+    double stepHeight(int index) {
+        return stepHeights[index];
+    }
+
+    /**
+     * True if the cell's collision box overlaps the given world-space box.
+     */
+    boolean collides(int index, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        if ((flags[index] & HAS_BOUNDS) == 0) return false;
+        int o = index * 6;
+        return boxes[o] < maxX && boxes[o + 3] > minX
+                && boxes[o + 1] < maxY && boxes[o + 4] > minY
+                && boxes[o + 2] < maxZ && boxes[o + 5] > minZ;
+    }
+}
@@ -0,0 +1,211 @@
+package net.landonis.dashboardmod.anticheat;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks each attack against where the attacker was looking and where the target was.
+ *
+ * Player poses come from the shared {@link PoseTracker}. On an attack:
+ * <ul>
+ *   <li>Reach is measured from the attacker's eyes to the target's hitbox as it was over the
+ *       attacker's latency (at least {@link #MIN_REWIND_TICKS} ticks), so a target that moved while
+ *       the attack was in flight still counts. Player targets are rewound from their own pose
+ *       history, other entities along their velocity.</li>
+ *   <li>The look vector must point at, or close to, that same hitbox.</li>
+ *   <li>Attacks that follow a large rotation from standing still are counted; a run of them is
+ *       the snap-aim of a killaura.</li>
+ * </ul>
+ * Each attack costs a handful of box distances and a few trig calls, and allocates nothing
+ * unless it is flagged. Server thread only.
+ */
+public class CombatAnalyzer {
+    private static final int MIN_REWIND_TICKS = 3;               // target positions accepted for a hit
+    private static final double REACH_TOLERANCE = 1.0;           // blocks beyond the interaction range
+    private static final double MAX_LOOK_OFFSET_DEGREES = 35.0;  // between look vector and hitbox edge
+    private static final double SNAP_DEGREES = 40.0;             // rotation in the tick of the attack
+    private static final double SETTLED_DEGREES = 2.0;           // rotation in the tick before it
+    private static final int SNAP_STREAK_LIMIT = 4;              // consecutive snap attacks flagged
+
+    private final Map<UUID, CombatData> combatData = new ConcurrentHashMap<>();
+    private final PoseTracker poseTracker;
+    private final AntiCheatLoad load;
+    private final RiskScores riskScores;
+    private final ViolationBus violations;
+
+    private static class CombatData {
+        int snapStreak = 0;
+        int violationCount = 0;
+    }
+
+    public CombatAnalyzer(PoseTracker poseTracker, AntiCheatLoad load, RiskScores riskScores, ViolationBus violations) {
+        this.poseTracker = poseTracker;
+        this.load = load;
+        this.riskScores = riskScores;
+        this.violations = violations;
+    }
+
+    // ===== Attack checks =====
+
+    public boolean canAttack(ServerPlayerEntity player, Entity target) {
+        if (target == null || player.isCreative() || player.isSpectator()) return true;
+        if (!load.isSampled(player.getUuid())) return true;
+
+        PoseHistory poses = poseTracker.get(player.getUuid());
+        if (poses == null || poses.size() < 2) return true;
+        CombatData data = combatData.computeIfAbsent(player.getUuid(), id -> new CombatData());
+
+        double eyeX = player.getX();
+        double eyeY = player.getEyeY();
+        double eyeZ = player.getZ();
+
+        float yaw = player.getYaw();
+        float pitch = player.getPitch();
+        double yawRad = Math.toRadians(yaw);
+        double pitchRad = Math.toRadians(pitch);
+        double lookX = -Math.sin(yawRad) * Math.cos(pitchRad);
+        double lookY = -Math.sin(pitchRad);
+        double lookZ = Math.cos(yawRad) * Math.cos(pitchRad);
+
+        // Best case over the rewound target positions
+        PoseHistory targetPoses = target instanceof ServerPlayerEntity targetPlayer
+                ? poseTracker.get(targetPlayer.getUuid()) : null;
+        double bestReach = Double.MAX_VALUE;
+        double bestLookOffset = Double.MAX_VALUE;
+        int ages = Math.max(MIN_REWIND_TICKS, PoseTracker.rewindTicks(player)) + 1;
+        if (targetPoses != null) {
+            ages = Math.min(ages, targetPoses.size());
+        }
+        Box box = target.getBoundingBox();
+        Vec3d velocity = target.getVelocity();
+
+        for (int age = 0; age < ages; age++) {
+            double minX, minY, minZ, maxX, maxY, maxZ;
+            if (targetPoses != null) {
+                double halfWidth = targetPoses.width(age) / 2.0;
+                minX = targetPoses.x(age) - halfWidth;
+                maxX = targetPoses.x(age) + halfWidth;
+                minY = targetPoses.y(age);
+                maxY = targetPoses.y(age) + targetPoses.height(age);
+                minZ = targetPoses.z(age) - halfWidth;
+                maxZ = targetPoses.z(age) + halfWidth;
+            } else {
+                minX = box.minX - velocity.x * age;
+                maxX = box.maxX - velocity.x * age;
+                minY = box.minY - velocity.y * age;
+                maxY = box.maxY - velocity.y * age;
+                minZ = box.minZ - velocity.z * age;
+                maxZ = box.maxZ - velocity.z * age;
+            }
+
+            double dx = axisDistance(eyeX, minX, maxX);
+            double dy = axisDistance(eyeY, minY, maxY);
+            double dz = axisDistance(eyeZ, minZ, maxZ);
+            bestReach = Math.min(bestReach, Math.sqrt(dx * dx + dy * dy + dz * dz));
+            bestLookOffset = Math.min(bestLookOffset, lookOffsetDegrees(eyeX, eyeY, eyeZ, lookX, lookY, lookZ,
+                    minX, minY, minZ, maxX, maxY, maxZ));
+        }
+
+        double maxReach = player.getEntityInteractionRange() + REACH_TOLERANCE;
+        if (bestReach > maxReach) {
+            recordViolation(data, player, ViolationType.COMBAT_REACH, bestReach, maxReach, EntityType.getId(target.getType()));
+            return false;
+        }
+
+        if (bestLookOffset > MAX_LOOK_OFFSET_DEGREES) {
+            recordViolation(data, player, ViolationType.LOOK_ANGLE, bestLookOffset, MAX_LOOK_OFFSET_DEGREES,
+                    EntityType.getId(target.getType()));
+            return false;
+        }
+
+        // Rotation since the last recorded pose, and in the tick before that
+        double turn = angleBetween(yaw, pitch, poses.yaw(0), poses.pitch(0));
+        double previousTurn = angleBetween(poses.yaw(0), poses.pitch(0), poses.yaw(1), poses.pitch(1));
+        if (turn >= SNAP_DEGREES && previousTurn <= SETTLED_DEGREES) {
+            data.snapStreak++;
+        } else {
+            data.snapStreak = 0;
+        }
+        if (load.allowsHeuristics() && data.snapStreak >= SNAP_STREAK_LIMIT) {
+            recordViolation(data, player, ViolationType.SNAP_ROTATION, data.snapStreak, SNAP_STREAK_LIMIT, null);
+            data.snapStreak = 0;
+            return false;
+        }
+
+        return true;
+    }
+
+    // ===== Geometry =====
+
+    private static double axisDistance(double value, double min, double max) {
+        return value < min ? min - value : value > max ? value - max : 0.0;
+    }
+
+    /**
+     * Degrees by which the look vector misses a box: the angle to its center, less the angle its
+     * half-diagonal covers at that distance. Zero when the eye is inside the box.
+     */
+    private static double lookOffsetDegrees(double eyeX, double eyeY, double eyeZ,
+                                            double lookX, double lookY, double lookZ,
+                                            double minX, double minY, double minZ,
+                                            double maxX, double maxY, double maxZ) {
+        double toX = (minX + maxX) / 2.0 - eyeX;
+        double toY = (minY + maxY) / 2.0 - eyeY;
+        double toZ = (minZ + maxZ) / 2.0 - eyeZ;
+        double distance = Math.sqrt(toX * toX + toY * toY + toZ * toZ);
+        double halfX = (maxX - minX) / 2.0, halfY = (maxY - minY) / 2.0, halfZ = (maxZ - minZ) / 2.0;
+        double radius = Math.sqrt(halfX * halfX + halfY * halfY + halfZ * halfZ);
+        if (distance <= radius) return 0.0;
+
+        double cos = (toX * lookX + toY * lookY + toZ * lookZ) / distance;
+        double toCenter = Math.toDegrees(Math.acos(Math.max(-1.0, Math.min(1.0, cos))));
+        double covered = Math.toDegrees(Math.asin(radius / distance));
+        return Math.max(0.0, toCenter - covered);
+    }
+
+    /**
+     * Rotation between two yaw/pitch pairs in degrees, with yaw wrapped to the shorter way round.
+     */
+    private static double angleBetween(float yawA, float pitchA, float yawB, float pitchB) {
+        double yawDelta = Math.abs(yawA - yawB) % 360.0;
+        if (yawDelta > 180.0) yawDelta = 360.0 - yawDelta;
+        double pitchDelta = pitchA - pitchB;
+        return Math.sqrt(yawDelta * yawDelta + pitchDelta * pitchDelta);
+    }
+
+    // ===== Violations =====
+
+    private void recordViolation(CombatData data, ServerPlayerEntity player, ViolationType type,
+                                 double value, double limit, Object context) {
+        data.violationCount++;
+        riskScores.recordViolation(player.getUuid(), 1.0);
+        violations.publish(new ViolationEvent(System.currentTimeMillis(), player.getUuid(),
+                player.getGameProfile().getName(), type, value, limit, context, data.violationCount));
+    }
+
+    // ===== Players =====
+
+    public int getViolationCount(ServerPlayerEntity player) {
+        CombatData data = combatData.get(player.getUuid());
+        return data != null ? data.violationCount : 0;
+    }
+
+    public void resetViolations(ServerPlayerEntity player) {
+        CombatData data = combatData.get(player.getUuid());
+        if (data != null) {
+            data.violationCount = 0;
+            data.snapStreak = 0;
+        }
+    }
+
+    public void removePlayer(ServerPlayerEntity player) {
+        combatData.remove(player.getUuid());
+    }
+}
@@ -1,21 +1,15 @@
 package net.landonis.dashboardmod.anticheat;
 
 import net.minecraft.util.math.MathHelper;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.server.network.ServerPlayerEntity;
-import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.Box;
-import net.minecraft.block.Block;
-import net.minecraft.block.Blocks;
-import net.minecraft.block.BlockState;
-import net.minecraft.block.SlabBlock;
-import net.minecraft.block.StairsBlock;
-import net.minecraft.block.FenceBlock;
-import net.minecraft.block.WallBlock;
 import net.minecraft.entity.effect.StatusEffects;
-import net.minecraft.util.shape.VoxelShape;
-import net.minecraft.entity.Entity;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.entity.effect.StatusEffect;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -23,6 +17,12 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Movement AntiCheat System for Minecraft Fabric
  * Detects and prevents movement-based exploits
+ *
+ * A check runs in three stages so the middle one can leave the server thread:
+ * {@link #capture} reads the player and the world into a {@link MovementSnapshot} (server thread),
+ * {@link #evaluate} runs the checks against the snapshot and the player's history (any thread,
+ * one player at a time), and {@link #apply} carries out the resulting {@link MovementVerdict}
+ * (server thread). {@link MovementPipeline} runs the evaluate stage on a worker pool.
  */
 public class MovementAntiCheat {
 
@@ -32,18 +32,36 @@ public class MovementAntiCheat {
     private static final double MAX_VERTICAL_SPEED = 0.8;
     private static final double TELEPORT_THRESHOLD = 8.0;
     private static final int POSITION_HISTORY_SIZE = 10;
+    private static final int SPEED_WINDOW_STEPS = 4; // steps between the last 5 positions
     private static final long VIOLATION_RESET_TIME = 300_000;
     private static final int MAX_VIOLATIONS_BEFORE_KICK = 20;
     private static final double LAG_COMPENSATION_MULTIPLIER = 1.3;
     private static final double MOUNT_SPEED_MULTIPLIER = 5.0;
     private static final long MOUNT_TRANSITION_GRACE = 2500; // 1 second grace period
+    private static final double PHASE_CHECK_DISTANCE = 0.8;
+    private static final int MAX_PATH_HITS = 4; // anything above 3 is already treated as a wall
+    
+    private static final int MAINTENANCE_PASS_TICKS = 20;
     
     private final Map<UUID, PlayerMovementData> playerData = new ConcurrentHashMap<>();
+    private final RiskScores riskScores;
+    private final ViolationBus violations;
+    private long captureCycle = 0; // server thread only
+    // Weakly consistent, so it survives concurrent inserts and removals between ticks
+    private Iterator<PlayerMovementData> maintenanceCursor;
+
+    public MovementAntiCheat(RiskScores riskScores, ViolationBus violations) {
+        this.riskScores = riskScores;
+        this.violations = violations;
+    }
 
+    /**
+     * Per-player state. The block window and contexts are written while capturing, everything else
+     * while evaluating; the pipeline never runs both stages for the same player at once.
+     */
     private static class PlayerMovementData {
-        private final Queue<MovementSnapshot> positionHistory = new LinkedList<>();
+        private final MovementHistory positionHistory = new MovementHistory(POSITION_HISTORY_SIZE, SPEED_WINDOW_STEPS);
         private Vec3d lastValidPosition;
-        private Vec3d lastVelocity = Vec3d.ZERO;
         private int airTime = 0;
         private int violationCount = 0;
         private long lastViolation = 0;
@@ -51,85 +69,78 @@ public class MovementAntiCheat {
         private boolean wasLastMounted = false;
         private long lastMountStateChange = 0;
         
-        private BlockContext lastBlockContext;
-    }
-
-    private static class MovementSnapshot {
-        final Vec3d position;
-        final long timestamp;
-        final boolean onGround;
-        final double yaw;
-
-        MovementSnapshot(Vec3d pos, long time, boolean ground, double yaw) {
-            this.position = pos;
-            this.timestamp = time;
-            this.onGround = ground;
-            this.yaw = yaw;
-        }
-    
+        private long lastUpdate = 0;
+
+        // Block context cache; the two contexts alternate so the last move's stays valid as "from"
+        private final BlockWindow blockWindow = new BlockWindow();
+        private final BlockContext contextA = new BlockContext();
+        private final BlockContext contextB = new BlockContext();
+        private BlockContext capturedContext;  // "to" side of the last captured move
+        private long capturedCycle = -1;
     }
 
     /**
-     * Comprehensive block context around player
+     * Comprehensive block context around player. Instances are reused: each player owns two that
+     * alternate between the "from" and "to" side of a move, filled from the player's {@link BlockWindow}.
+     * Further moves captured before the first is evaluated get fresh instances.
      */
     private static class BlockContext {
-        final Map<BlockPos, Block> nearbyBlocks = new HashMap<>();
-        final boolean onSolidGround;
-        final boolean inWater;
-        final boolean inLava;
-        final boolean hasClimbable;
-        final double maxStepHeight;
-        final boolean hasObstructions;
-        final Set<Block> supportingBlocks = new HashSet<>();
-        final Vec3d position;
-
-        BlockContext(ServerPlayerEntity player, Vec3d pos) {
+        boolean onSolidGround;
+        boolean inWater;
+        boolean inLava;
+        boolean hasClimbable;
+        double maxStepHeight;
+        boolean hasObstructions;
+        boolean onWaterSurface;   // water below the feet block, air in it
+        double jumpBarrierHeight; // highest fence-like barrier around the feet block, 0 if none
+        Vec3d position;
+
+        BlockContext update(BlockWindow window, ServerPlayerEntity player, Vec3d pos) {
             this.position = pos;
-            ServerWorld world = player.getWorld();
-            Box playerBox = player.getBoundingBox().offset(pos.subtract(player.getPos()));
-            
-            // Check blocks in 3x3x3 area around player
-            BlockPos center = BlockPos.ofFloored(pos.x, pos.y, pos.z);
+            window.moveTo(player.getWorld(), MathHelper.floor(pos.x), MathHelper.floor(pos.y), MathHelper.floor(pos.z));
+
+            // Player box moved to pos, without allocating an offset Box
+            Box box = player.getBoundingBox();
+            double shiftX = pos.x - player.getX();
+            double shiftY = pos.y - player.getY();
+            double shiftZ = pos.z - player.getZ();
+            double minX = box.minX + shiftX, minY = box.minY + shiftY, minZ = box.minZ + shiftZ;
+            double maxX = box.maxX + shiftX, maxY = box.maxY + shiftY, maxZ = box.maxZ + shiftZ;
+
             boolean solidGround = false;
             boolean water = false;
             boolean lava = false;
             boolean climbable = false;
             boolean obstructed = false;
             double stepHeight = 0.0;
+            double barrierHeight = 0.0;
+
+            for (int i = 0; i < BlockWindow.CELLS; i++) {
+                int y = BlockWindow.offsetY(i);
 
-            for (int x = -1; x <= 1; x++) {
-                for (int y = -1; y <= 1; y++) {
-                    for (int z = -1; z <= 1; z++) {
-                        BlockPos checkPos = center.add(x, y, z);
-                        BlockState state = world.getBlockState(checkPos);
-                        Block block = state.getBlock();
-                        nearbyBlocks.put(checkPos, block);
-
-                        // Check for ground support (blocks below player)
-                        if (y == -1 && isSolid(block)) {
-                            solidGround = true;
-                            supportingBlocks.add(block);
-                            stepHeight = Math.max(stepHeight, getBlockStepHeight(block, state));
-                        }
-
-                        // Check for liquids
-                        if (block == Blocks.WATER) water = true;
-                        if (block == Blocks.LAVA) lava = true;
-
-                        // Check for climbable blocks
-                        if (isClimbable(block)) climbable = true;
-
-                        // Check for obstructions in movement path - be more lenient
-                        if (y >= 0 && y <= 1 && isSolid(block)) {
-                            VoxelShape shape = state.getCollisionShape(world, checkPos);
-                            if (!shape.isEmpty()) {
-                                Box blockBox = shape.getBoundingBox().offset(checkPos);
-                                if (blockBox.intersects(playerBox)) {
-                                    obstructed = true;
-                                }
-                            }
-                        }
-                    }
+                // Check for ground support (blocks below player)
+                if (y == -1 && window.has(i, BlockClassification.SOLID)) {
+                    solidGround = true;
+                    stepHeight = Math.max(stepHeight, window.stepHeight(i));
+                }
+
+                // Check for liquids and climbable blocks
+                if (window.has(i, BlockClassification.WATER)) water = true;
+                if (window.has(i, BlockClassification.LAVA)) lava = true;
+                if (window.has(i, BlockClassification.CLIMBABLE)) climbable = true;
+
+                // Check for obstructions in movement path - be more lenient
+                if (y >= 0 && window.has(i, BlockClassification.SOLID)
+                        && window.collides(i, minX, minY, minZ, maxX, maxY, maxZ)) {
+                    obstructed = true;
+                }
+
+                // Fences, walls and closed trapdoors above limit how high a jump can go from here
+                if (y == 0 && window.has(i, BlockClassification.BARRIER)) {
+                    barrierHeight = Math.max(barrierHeight, 1.5);
+                }
+                if (y == 1 && window.has(i, BlockClassification.CLOSED_TOP_TRAPDOOR)) {
+                    barrierHeight = Math.max(barrierHeight, 1.9); // Block + trapdoor
                 }
             }
 
@@ -139,34 +150,10 @@ public class MovementAntiCheat {
             this.hasClimbable = climbable;
             this.maxStepHeight = stepHeight;
             this.hasObstructions = obstructed;
-        }
-
-
-        private boolean isSolid(Block block) {
-            return block != Blocks.AIR && 
-                   block != Blocks.WATER && 
-                   block != Blocks.LAVA &&
-                   !isClimbable(block);
-        }
-
-        private boolean isClimbable(Block block) {
-            return block == Blocks.LADDER || 
-                   block == Blocks.VINE ||
-                   block instanceof net.minecraft.block.ScaffoldingBlock;
-        }
-
-        private double getBlockStepHeight(Block block, BlockState state) {
-            if (block instanceof SlabBlock) {
-                try {
-                    return state.get(SlabBlock.TYPE) == net.minecraft.block.enums.SlabType.DOUBLE ? 1.0 : 0.5;
-                } catch (IllegalArgumentException e) {
-                    return 0.5; // Default slab height if property doesn't exist
-                }
-            }
-            if (block instanceof StairsBlock) return 0.75;
-            if (block instanceof FenceBlock || block instanceof WallBlock) return 1.5;
-            if (block == Blocks.AIR) return 0.0;
-            return 1.0;
+            this.onWaterSurface = window.has(BlockWindow.index(0, -1, 0), BlockClassification.WATER)
+                    && window.has(BlockWindow.index(0, 0, 0), BlockWindow.AIR);
+            this.jumpBarrierHeight = barrierHeight;
+            return this;
         }
 
         public boolean canSupportPlayer() {
@@ -184,100 +171,240 @@ public class MovementAntiCheat {
         }
     }
 
-    private boolean isPlayerMounted(ServerPlayerEntity player) {
-        try {
-            boolean hasVehicle = player.hasVehicle();
-            
-            // Additional debug checks
-            Entity vehicle = null;
-            String vehicleType = "none";
-            
+    /**
+     * Everything the checks need about one move, read on the server thread. The two block contexts
+     * belong to the player's data and are not written again until this snapshot has been evaluated.
+     */
+    static final class MovementSnapshot {
+        final PlayerMovementData data;
+        final UUID playerId;
+        final String playerName;
+        final long time;
+        final Vec3d from;
+        final Vec3d to;
+        final BlockContext fromContext;
+        final BlockContext toContext;
+
+        final boolean onGround;
+        final boolean sprinting;
+        final boolean swimming;
+        final boolean gliding;
+        final boolean creative;
+        final boolean spectator;
+        final boolean allowFlying;
+        final float flySpeed;
+        final boolean mounted;
+        final boolean trusted; // permission level 2, may teleport freely
+        final float yaw;
+
+        // Status effect levels (amplifier + 1), 0 when the effect is absent
+        final int speedLevel;
+        final int slownessLevel;
+        final int jumpBoostLevel;
+        final boolean waterBreathing;
+
+        // Swept-box scan of the move, only filled in for moves long enough to be phase checked
+        final boolean pathScanned;
+        final int pathHits;
+        final BlockState pathFirstHit;
+
+        private MovementSnapshot(ServerPlayerEntity player, PlayerMovementData data, Vec3d from, Vec3d to,
+                                 BlockContext fromContext, BlockContext toContext, SweptPath path) {
+            this.data = data;
+            this.playerId = player.getUuid();
+            this.playerName = playerName(player);
+            this.time = System.currentTimeMillis();
+            this.from = from;
+            this.to = to;
+            this.fromContext = fromContext;
+            this.toContext = toContext;
+            this.onGround = player.isOnGround();
+            this.sprinting = player.isSprinting();
+            this.swimming = player.isSwimming();
+            this.gliding = player.isGliding();
+            this.creative = player.isCreative();
+            this.spectator = player.isSpectator();
+            this.allowFlying = player.getAbilities().allowFlying;
+            this.flySpeed = player.getAbilities().getFlySpeed();
+            this.mounted = isPlayerMounted(player);
+            this.trusted = player.hasPermissionLevel(2);
+            this.yaw = player.getYaw();
+            this.speedLevel = effectLevel(player, StatusEffects.SPEED);
+            this.slownessLevel = effectLevel(player, StatusEffects.SLOWNESS);
+            this.jumpBoostLevel = effectLevel(player, StatusEffects.JUMP_BOOST);
+            this.waterBreathing = effectLevel(player, StatusEffects.WATER_BREATHING) > 0;
+            this.pathScanned = path != null;
+            this.pathHits = path != null ? path.getHits() : 0;
+            this.pathFirstHit = path != null ? path.getFirstHit() : null;
+        }
+
+        private static String playerName(ServerPlayerEntity player) {
             try {
-                vehicle = player.getVehicle();
-                if (vehicle != null) {
-                    vehicleType = vehicle.getClass().getSimpleName();
-                }
+                return player.getName().getString();
             } catch (Exception e) {
-                // Ignore secondary checks if they fail
+                return "unknown player";
+            }
+        }
+
+        private static int effectLevel(ServerPlayerEntity player, RegistryEntry<StatusEffect> effect) {
+            try {
+                StatusEffectInstance instance = player.getStatusEffect(effect);
+                return instance != null ? instance.getAmplifier() + 1 : 0;
+            } catch (Exception e) {
+                return 0; // Fallback if status effect queries fail
             }
-            
-   
-            return hasVehicle;
-        } catch (Exception e) {
-            System.out.println("[AntiCheat DEBUG] Mount check failed for " + player.getName().getString() + 
-                ": " + e.getMessage());
-            return false;
         }
     }
+
+    /**
+     * Outcome of a failed move: what {@link #apply} has to do on the server thread.
+     */
+    static final class MovementVerdict {
+        final UUID playerId;
+        final Vec3d teleportTo; // null to leave the player where they are
+        final String message;   // null for no message
+        final boolean kick;
+
+        private MovementVerdict(UUID playerId, Vec3d teleportTo, String message, boolean kick) {
+            this.playerId = playerId;
+            this.teleportTo = teleportTo;
+            this.message = message;
+            this.kick = kick;
+        }
+    }
+
+    private static boolean isPlayerMounted(ServerPlayerEntity player) {
+        return player.hasVehicle();
+    }
+
     /**
-     * Main movement validation method
+     * Main movement validation method: all three stages inline on the calling (server) thread
      */
     public boolean validateMovement(ServerPlayerEntity player, Vec3d fromPos, Vec3d toPos) {
-        UUID playerId = player.getUuid();
-        PlayerMovementData data = getPlayerData(playerId);
-        long currentTime = System.currentTimeMillis();
+        MovementVerdict verdict = evaluate(capture(player, fromPos, toPos, needsPathScan(player, fromPos, toPos)));
+        endCaptureCycle();
+        if (verdict == null) return true;
+        apply(verdict, player);
+        return false;
+    }
+
+    /**
+     * True if the phase check will want a swept-box scan of this move, the expensive part of capturing it.
+     */
+    boolean needsPathScan(ServerPlayerEntity player, Vec3d fromPos, Vec3d toPos) {
+        double distance = fromPos.distanceTo(toPos);
+        return distance > PHASE_CHECK_DISTANCE && distance <= TELEPORT_THRESHOLD && !player.isSpectator();
+    }
+
+    /**
+     * Reads the player and the blocks around one move. Server thread only.
+     *
+     * @param scanPath whether to sweep the move for the phase check; without the scan the check is skipped
+     */
+    MovementSnapshot capture(ServerPlayerEntity player, Vec3d fromPos, Vec3d toPos, boolean scanPath) {
+        PlayerMovementData data = getPlayerData(player.getUuid());
+        boolean firstInCycle = data.capturedCycle != captureCycle;
+        data.capturedCycle = captureCycle;
+
+        // The last move's "to" side is this move's "from" side, unless the server moved the player in between
+        BlockContext fromContext = data.capturedContext;
+        if (fromContext == null || !fromContext.position.equals(fromPos)) {
+            fromContext = (firstInCycle ? data.contextA : new BlockContext()).update(data.blockWindow, player, fromPos);
+        }
+        // The pair is free again once the previous cycle is evaluated; further moves in a cycle get their own
+        BlockContext toContext = firstInCycle
+                ? (fromContext == data.contextA ? data.contextB : data.contextA)
+                : new BlockContext();
+        toContext.update(data.blockWindow, player, toPos);
+        data.capturedContext = toContext;
+
+        // The world cannot be read off-thread, so sweep moves the phase check will look at now
+        SweptPath path = null;
+        if (scanPath) {
+            path = new SweptPath().scan(player.getWorld(), fromPos, toPos,
+                    player.getWidth(), player.getHeight(), MAX_PATH_HITS);
+        }
+
+        return new MovementSnapshot(player, data, fromPos, toPos, fromContext, toContext, path);
+    }
+
+    /**
+     * Marks the snapshots captured so far as handed off for evaluation. Server thread only.
+     */
+    void endCaptureCycle() {
+        captureCycle++;
+    }
+
+    /**
+     * Runs the checks for one snapshot. Touches only that player's data, so snapshots of different
+     * players may be evaluated in parallel.
+     *
+     * @return null if the move is fine, otherwise what to do about it
+     */
+    MovementVerdict evaluate(MovementSnapshot s) {
+        PlayerMovementData data = s.data;
+        Vec3d fromPos = s.from;
+        Vec3d toPos = s.to;
+        long currentTime = s.time;
+
+        data.lastUpdate = currentTime;
 
         if (data.lastValidPosition == null) {
             data.lastValidPosition = fromPos;
-            data.lastBlockContext = new BlockContext(player, fromPos);
-            return true;
+            return null;
         }
 
-        // Get block context for both positions
-        BlockContext fromContext = data.lastBlockContext != null ? data.lastBlockContext : new BlockContext(player, fromPos);
-        BlockContext toContext = new BlockContext(player, toPos);
+        BlockContext fromContext = s.fromContext;
+        BlockContext toContext = s.toContext;
 
         // Basic movement calculations
-        Vec3d movement = toPos.subtract(fromPos);
-        double distance = movement.length();
-        double horizontalDistance = Math.sqrt(movement.x * movement.x + movement.z * movement.z);
-        double verticalDistance = movement.y;
+        double moveX = toPos.x - fromPos.x;
+        double moveY = toPos.y - fromPos.y;
+        double moveZ = toPos.z - fromPos.z;
+        double horizontalDistance = Math.sqrt(moveX * moveX + moveZ * moveZ);
+        double distance = Math.sqrt(horizontalDistance * horizontalDistance + moveY * moveY);
+        double verticalDistance = moveY;
 
-        addPositionSnapshot(data, toPos, currentTime, player.isOnGround(), player.getYaw());
+        data.positionHistory.add(toPos.x, toPos.y, toPos.z, currentTime, s.onGround, s.yaw);
 
         // Check for teleporting first
         if (distance > TELEPORT_THRESHOLD) {
-            if (isLegitTeleport(player, fromPos, toPos)) {
+            if (isLegitTeleport(s)) {
                 data.lastValidPosition = toPos;
-                data.lastBlockContext = toContext;
-                return true;
+                return null;
             } else {
-                recordViolation(data, player, "Illegal teleport: " + String.format("%.2f", distance) + " blocks");
-                return false;
+                recordViolation(data, s, ViolationType.ILLEGAL_TELEPORT, distance, TELEPORT_THRESHOLD, null);
+                return remediate(data, s);
             }
         }
 
         // Enhanced validation with block context - simplified approach
         if (distance > 0.15) { // Only validate movements worth checking
-            if (checkSpeedViolation(player, data, horizontalDistance, verticalDistance, fromContext, toContext)) return false;
-            if (checkVerticalViolation(player, data, verticalDistance, fromContext, toContext)) return false;
-            if (distance > 0.8 && checkPhaseViolation(player, fromPos, toPos, fromContext, toContext)) return false;
+            if (checkSpeedViolation(s, data, horizontalDistance, verticalDistance, fromContext, toContext)) return remediate(data, s);
+            if (checkVerticalViolation(s, data, verticalDistance, fromContext, toContext)) return remediate(data, s);
+            if (distance > PHASE_CHECK_DISTANCE && checkPhaseViolation(s, data, distance)) return remediate(data, s);
         }
         
         // Simple checks for basic exploits
         if (distance > 0.3) {
-            if (checkJesusViolation(player, toPos, toContext)) return false;
+            if (checkJesusViolation(s, data, toContext)) return remediate(data, s);
         }
 
         data.lastValidPosition = toPos;
-        data.lastVelocity = movement;
-        data.lastBlockContext = toContext;
-        updateAirTime(data, player.isOnGround());
+        updateAirTime(data, s.onGround);
 
-        return true;
+        return null;
     }
-//TODO move logic for mount transition into the check speed method
-    private boolean checkSpeedViolation(ServerPlayerEntity player, PlayerMovementData data,
+
+    private boolean checkSpeedViolation(MovementSnapshot s, PlayerMovementData data,
                                        double horizontalDistance, double verticalDistance,
                                        BlockContext fromContext, BlockContext toContext) {
         // Check if player is mounted or was recently mounting/dismounting
-        boolean currentlyMounted = isPlayerMounted(player);
-        long currentTime = System.currentTimeMillis();
+        boolean currentlyMounted = s.mounted;
+        long currentTime = s.time;
     
-        // Track mount state changes with debug logging
+        // Track mount state changes; a recent one goes along as violation context
         if (currentlyMounted != data.wasLastMounted) {
-            System.out.println("[AntiCheat DEBUG] Mount state change for " + player.getName().getString() + 
-                ": " + data.wasLastMounted + " -> " + currentlyMounted);
             data.wasLastMounted = currentlyMounted;
             data.lastMountStateChange = currentTime;
         }
@@ -285,40 +412,29 @@ public class MovementAntiCheat {
         boolean inMountTransition = (currentTime - data.lastMountStateChange) < MOUNT_TRANSITION_GRACE;
     
         // Simple speed checking - just max speed + generous wiggle room
-        double baseMaxSpeed = getMaxAllowedSpeed(player); // Very generous for stepping/slabs
+        double baseMaxSpeed = getMaxAllowedSpeed(s); // Very generous for stepping/slabs
         double maxSpeed = baseMaxSpeed;
     
-        // Apply mount speed adjustments with debug logging
+        // Apply mount speed adjustments
         if (inMountTransition) {
             maxSpeed *= MOUNT_SPEED_MULTIPLIER; // Be lenient during mounting/dismounting
         } else if (currentlyMounted) {
             maxSpeed *= MOUNT_SPEED_MULTIPLIER; // Allow much faster speeds on mounts
         }
         
+        // The mount state goes along as violation context
+        String mountState = inMountTransition ? " (mount transition)" : currentlyMounted ? " (mounted)" : null;
+        
         if (horizontalDistance > maxSpeed) {
-                    // Debug speed check
-            System.out.println("[AntiCheat DEBUG] Speed check for " + player.getName().getString() + 
-                ": distance=" + String.format("%.3f", horizontalDistance) + 
-                ", maxSpeed=" + String.format("%.3f", maxSpeed) + 
-                ", mounted=" + currentlyMounted + 
-                ", inTransition=" + inMountTransition);
-            recordViolation(data, player, String.format("Speed hack: %.3f > %.3f", 
-                horizontalDistance, maxSpeed));
+            recordViolation(data, s, ViolationType.SPEED, horizontalDistance, maxSpeed, mountState);
             return true;
         }
     
         // Only check consistency for obviously fast movement
-        if (data.positionHistory.size() >= 5 && horizontalDistance > maxSpeed * 0.6) {
-            double avgSpeed = calculateAverageSpeed(data, 5);
+        if (data.positionHistory.isWindowFull() && horizontalDistance > maxSpeed * 0.6) {
+            double avgSpeed = data.positionHistory.averageStep();
             if (avgSpeed > maxSpeed * 0.7) {
-                    // Debug speed check
-                System.out.println("[AntiCheat DEBUG] Speed check for " + player.getName().getString() + 
-                    ": distance=" + String.format("%.3f", horizontalDistance) + 
-                    ", maxSpeed=" + String.format("%.3f", maxSpeed) + 
-                    ",avgSpeed=" + String.format("%.3f", avgSpeed) +
-                    ", mounted=" + currentlyMounted + 
-                    ", inTransition=" + inMountTransition);                
-                recordViolation(data, player, String.format("Consistent high speed: %.3f", avgSpeed));
+                recordViolation(data, s, ViolationType.CONSISTENT_SPEED, avgSpeed, maxSpeed * 0.7, mountState);
                 return true;
             }
         }
@@ -326,75 +442,63 @@ public class MovementAntiCheat {
         return false;
     }
     
-    private double getMaxAllowedSpeed(ServerPlayerEntity player) {
-        double baseSpeed = player.isSprinting() ? MAX_SPRINT_SPEED : MAX_WALK_SPEED;
-        double originalBaseSpeed = baseSpeed;
+    private double getMaxAllowedSpeed(MovementSnapshot s) {
+        double baseSpeed = s.sprinting ? MAX_SPRINT_SPEED : MAX_WALK_SPEED;
     
-        // Status effect modifications with safety checks
-        try {
-            if (player.hasStatusEffect(StatusEffects.SPEED)) {
-                int amplifier = player.getStatusEffect(StatusEffects.SPEED).getAmplifier() + 1;
-                baseSpeed *= (1.0 + 0.2 * Math.min(amplifier, 10)); // Cap amplifier
-            }
-            if (player.hasStatusEffect(StatusEffects.SLOWNESS)) {
-                int amplifier = player.getStatusEffect(StatusEffects.SLOWNESS).getAmplifier() + 1;
-                baseSpeed *= (1.0 - 0.15 * Math.min(amplifier, 10)); // Cap amplifier
-            }
-        } catch (Exception e) {
-            // Fallback if status effect queries fail
+        // Status effect modifications
+        if (s.speedLevel > 0) {
+            baseSpeed *= (1.0 + 0.2 * Math.min(s.speedLevel, 10)); // Cap amplifier
+        }
+        if (s.slownessLevel > 0) {
+            baseSpeed *= (1.0 - 0.15 * Math.min(s.slownessLevel, 10)); // Cap amplifier
         }
     
-        if (player.isCreative() || player.isSpectator()) {
-            try {
-                baseSpeed = player.getAbilities().getFlySpeed() * 20;
-            } catch (Exception e) {
-                baseSpeed = MAX_FLY_SPEED * 20; // Fallback
-            }
+        if (s.creative || s.spectator) {
+            baseSpeed = s.flySpeed * 20;
         }
     
         double finalSpeed = Math.max(baseSpeed, 0.01);
         
         return finalSpeed;
     }
-private boolean checkVerticalViolation(ServerPlayerEntity player, PlayerMovementData data,
+private boolean checkVerticalViolation(MovementSnapshot s, PlayerMovementData data,
                                        double verticalDistance, BlockContext fromContext, BlockContext toContext) {
-    if (player.getAbilities().allowFlying || player.isGliding()) return false;
+    if (s.allowFlying || s.gliding) return false;
     if (toContext.inWater || toContext.inLava || toContext.hasClimbable) return false;
 
     // Add mount checks - skip most vertical validation when mounted
-    boolean currentlyMounted = isPlayerMounted(player);
-    long currentTime = System.currentTimeMillis();
+    boolean currentlyMounted = s.mounted;
+    long currentTime = s.time;
     boolean inMountTransition = (currentTime - data.lastMountStateChange) < MOUNT_TRANSITION_GRACE;
     
     if (currentlyMounted || inMountTransition) {
         // Allow much more freedom for mounted movement
         // Only check for extreme impossible vertical speeds
         if (Math.abs(verticalDistance) > 5.0) { // 5 blocks per tick is clearly impossible even for mounts
-            recordViolation(data, player, String.format("Extreme mounted vertical speed: %.3f", verticalDistance));
+            recordViolation(data, s, ViolationType.MOUNTED_VERTICAL_SPEED, verticalDistance, 5.0, null);
             return true;
         }
         return false; // Skip all other vertical checks when mounted
     }
 
     // Track jumping for height validation (only for non-mounted players)
-    if (!data.wasOnGround && player.isOnGround()) {
+    if (!data.wasOnGround && s.onGround) {
         // Just landed - reset tracking
         data.airTime = 0;
         return false;
     }
     
-    if (data.wasOnGround && !player.isOnGround() && verticalDistance > 0) {
+    if (data.wasOnGround && !s.onGround && verticalDistance > 0) {
         // Just started jumping - track the starting height
         if (data.lastValidPosition != null) {
             // We'll check max jump height based on barriers, not step-by-step movement
-            double maxJumpHeight = getMaxJumpHeight(player, data.lastValidPosition);
+            double maxJumpHeight = getMaxJumpHeight(s, fromContext);
             
             // Only check if they've been in air for a while and gained significant height
             if (data.airTime > 5) {
                 double totalHeightGain = toContext.position.y - data.lastValidPosition.y;
                 if (totalHeightGain > maxJumpHeight) {
-                    recordViolation(data, player, String.format("Jump too high: %.2f > %.2f blocks", 
-                        totalHeightGain, maxJumpHeight));
+                    recordViolation(data, s, ViolationType.JUMP_HEIGHT, totalHeightGain, maxJumpHeight, null);
                     return true;
                 }
             }
@@ -403,230 +507,96 @@ private boolean checkVerticalViolation(ServerPlayerEntity player, PlayerMovement
 
     // Simple fly check - only for extreme vertical speeds
     double maxVerticalSpeed = 1.5; // Very generous
-    if (player.hasStatusEffect(StatusEffects.JUMP_BOOST)) {
-        int amplifier = player.getStatusEffect(StatusEffects.JUMP_BOOST).getAmplifier() + 1;
-        maxVerticalSpeed += 0.3 * amplifier;
+    if (s.jumpBoostLevel > 0) {
+        maxVerticalSpeed += 0.3 * s.jumpBoostLevel;
     }
 
     if (verticalDistance > maxVerticalSpeed) {
-        recordViolation(data, player, String.format("Extreme vertical speed: %.3f", verticalDistance));
+        recordViolation(data, s, ViolationType.VERTICAL_SPEED, verticalDistance, maxVerticalSpeed, null);
         return true;
     }
 
     // Simple hovering check - only for extreme cases (and not when mounted!)
     if (data.airTime > 100 && Math.abs(verticalDistance) < 0.005) {
-        recordViolation(data, player, "Hovering detected");
+        recordViolation(data, s, ViolationType.HOVER, data.airTime, 100, null);
         return true;
     }
 
     return false;
 }
 
-    private double getMaxJumpHeight(ServerPlayerEntity player, Vec3d startPos) {
-        ServerWorld world = player.getWorld();
-        BlockPos startBlock = BlockPos.ofFloored(startPos.x, startPos.y, startPos.z);
-        
+    /**
+     * Jump height allowed from the last valid position, whose block context is the "from" side of the move.
+     */
+    private double getMaxJumpHeight(MovementSnapshot s, BlockContext startContext) {
         // Base jump height - normal player can jump ~1.25 blocks
         double maxHeight = 1.3;
         
-        if (player.hasStatusEffect(StatusEffects.JUMP_BOOST)) {
-            int amplifier = player.getStatusEffect(StatusEffects.JUMP_BOOST).getAmplifier() + 1;
-            maxHeight += 0.5 * amplifier; // Each level adds ~0.5 blocks
-        }
-        
-        // Check for barriers around starting position that should limit jump height
-        boolean hasBarrier = false;
-        double barrierHeight = 0;
-        
-        // Check 3x3 area around starting position
-        for (int x = -1; x <= 1; x++) {
-            for (int z = -1; z <= 1; z++) {
-                BlockPos checkPos = startBlock.add(x, 0, z);
-                Block block = world.getBlockState(checkPos).getBlock();
-                
-                // Fences and walls - should limit jump to ~1.5 blocks
-                if (block instanceof FenceBlock || block instanceof WallBlock) {
-                    hasBarrier = true;
-                    barrierHeight = Math.max(barrierHeight, 1.5);
-                }
-                
-                // Check for trapdoors on top of blocks
-                BlockPos abovePos = checkPos.up();
-                Block aboveBlock = world.getBlockState(abovePos).getBlock();
-                if (aboveBlock instanceof net.minecraft.block.TrapdoorBlock) {
-                    BlockState trapdoorState = world.getBlockState(abovePos);
-                    try {
-                        boolean isOpen = trapdoorState.get(net.minecraft.block.TrapdoorBlock.OPEN);
-                        boolean isTop = trapdoorState.get(net.minecraft.block.TrapdoorBlock.HALF) == net.minecraft.block.enums.BlockHalf.TOP;
-                        
-                        if (!isOpen && isTop) {
-                            hasBarrier = true;
-                            barrierHeight = Math.max(barrierHeight, 1.9); // Block + trapdoor
-                        }
-                    } catch (Exception e) {
-                        // Ignore property errors
-                    }
-                }
-            }
+        if (s.jumpBoostLevel > 0) {
+            maxHeight += 0.5 * s.jumpBoostLevel; // Each level adds ~0.5 blocks
         }
         
         // If there's a barrier, limit jump height to slightly above it
-        if (hasBarrier) {
-            maxHeight = Math.min(maxHeight, barrierHeight + 0.2);
+        if (startContext.jumpBarrierHeight > 0) {
+            maxHeight = Math.min(maxHeight, startContext.jumpBarrierHeight + 0.2);
         }
         
         return maxHeight;
     }
 
-    private boolean checkPhaseViolation(ServerPlayerEntity player, Vec3d fromPos, Vec3d toPos,
-                                       BlockContext fromContext, BlockContext toContext) {
-        if (player.isSpectator()) return false;
+    private boolean checkPhaseViolation(MovementSnapshot s, PlayerMovementData data, double distance) {
+        if (s.spectator) return false;
 
         // Allow limited phasing during mount transitions - only within interaction distance
-        PlayerMovementData data = getPlayerData(player.getUuid());
-        long currentTime = System.currentTimeMillis();
-        boolean inMountTransition = (currentTime - data.lastMountStateChange) < MOUNT_TRANSITION_GRACE;
-            
-        // Calculate distance for this method
-        double distance = fromPos.distanceTo(toPos);
+        boolean inMountTransition = (s.time - data.lastMountStateChange) < MOUNT_TRANSITION_GRACE;
 
         // If in mount transition, only allow phasing for short distances (mounting range)
         if (inMountTransition && distance > 6.0) { // MAX_INTERACTION_DISTANCE from your action limiter
-            recordViolation(data, player, "Long-distance phase during mount transition: " + String.format("%.2f", distance));
+            recordViolation(data, s, ViolationType.MOUNT_PHASE_DISTANCE, distance, 6.0, null);
             return true;
         }
         
+        // The scan was deferred by the tick budget; the player is first in line next tick
+        if (!s.pathScanned) return false;
+
         // For mount transitions within interaction range, allow some phasing but still check for extreme cases
         if (inMountTransition) {
             // Only block if trying to phase through many solid blocks (obvious exploit)
-            int solidBlockCount = countSolidBlocksInPath(player, fromPos, toPos);
+            int solidBlockCount = s.pathHits;
             if (solidBlockCount > 3) { // Allow phasing through a few blocks, but not a wall
-                recordViolation(data, player, "Excessive phasing during mount transition through " + solidBlockCount + " blocks");
+                recordViolation(data, s, ViolationType.MOUNT_PHASE_BLOCKS, solidBlockCount, 3, null);
                 return true;
             }
             return false; // Allow limited phasing during mount transitions
         }
         
         // Only check for significant movements that could be phasing
-        if (distance < 0.8) return false;
-
-        // Simple check: moving through solid blocks
-        ServerWorld world = player.getWorld();
-        Vec3d direction = toPos.subtract(fromPos);
-        double pathDistance = direction.length();
-        Vec3d normalized = direction.normalize();
-        int steps = Math.max(5, (int) (pathDistance * 10));
-        Box playerBox = player.getBoundingBox();
-
-        // Check path for solid blocks
-        for (int i = 1; i < steps; i++) {
-            double progress = (double) i / steps;
-            Vec3d checkPos = fromPos.add(direction.multiply(progress));
-            Box checkBox = playerBox.offset(checkPos.subtract(fromPos));
-
-            BlockPos blockPos = BlockPos.ofFloored(checkPos.x, checkPos.y, checkPos.z);
-            BlockState state = world.getBlockState(blockPos);
-            
-            if (!state.isAir() && state.getBlock() != Blocks.WATER) {
-                VoxelShape shape = state.getCollisionShape(world, blockPos);
-                if (!shape.isEmpty()) {
-                    Box blockBox = shape.getBoundingBox().offset(blockPos);
-                    if (checkBox.intersects(blockBox)) {
-                        recordViolation(getPlayerData(player.getUuid()), player,
-                            "Phase/NoClip through " + state.getBlock());
-                        return true;
-                    }
-                }
-            }
-        }
-
-        return false;
-    }
-
-    private int countSolidBlocksInPath(ServerPlayerEntity player, Vec3d fromPos, Vec3d toPos) {
-        ServerWorld world = player.getWorld();
-        Vec3d direction = toPos.subtract(fromPos);
-        double pathDistance = direction.length();
-        Vec3d normalized = direction.normalize();
-        int steps = Math.max(5, (int) (pathDistance * 10));
-        Box playerBox = player.getBoundingBox();
-        
-        int solidBlockCount = 0;
-        Set<BlockPos> checkedPositions = new HashSet<>(); // Avoid double-counting same block
-        
-        // Check path for solid blocks
-        for (int i = 1; i < steps; i++) {
-            double progress = (double) i / steps;
-            Vec3d checkPos = fromPos.add(direction.multiply(progress));
-            Box checkBox = playerBox.offset(checkPos.subtract(fromPos));
-    
-            BlockPos blockPos = BlockPos.ofFloored(checkPos.x, checkPos.y, checkPos.z);
-            
-            // Skip if we already checked this block position
-            if (checkedPositions.contains(blockPos)) continue;
-            checkedPositions.add(blockPos);
-            
-            BlockState state = world.getBlockState(blockPos);
-            
-            if (!state.isAir() && state.getBlock() != Blocks.WATER) {
-                VoxelShape shape = state.getCollisionShape(world, blockPos);
-                if (!shape.isEmpty()) {
-                    Box blockBox = shape.getBoundingBox().offset(blockPos);
-                    if (checkBox.intersects(blockBox)) {
-                        solidBlockCount++;
-                    }
-                }
-            }
-        }
-        
-        return solidBlockCount;
-    }
+        if (distance < PHASE_CHECK_DISTANCE) return false;
 
-    private boolean checkJesusViolation(ServerPlayerEntity player, Vec3d position, BlockContext context) {
-        if (player.getAbilities().allowFlying || player.isGliding()) return false;
-        if (player.hasStatusEffect(StatusEffects.WATER_BREATHING)) return false;
-
-        // Enhanced Jesus detection
-        if (context.inWater && player.isOnGround() && !player.isSwimming()) {
-            // Check if actually on water surface
-            BlockPos playerPos = BlockPos.ofFloored(position.x, position.y, position.z);
-            ServerWorld world = player.getWorld();
-            
-            if (world.getBlockState(playerPos.down()).getBlock() == Blocks.WATER &&
-                world.getBlockState(playerPos).getBlock() == Blocks.AIR) {
-                recordViolation(getPlayerData(player.getUuid()), player, "Jesus/Water walking");
-                return true;
-            }
+        // The player's box was swept through every block the move crosses while capturing
+        if (s.pathHits > 0) {
+            recordViolation(data, s, ViolationType.PHASE, s.pathHits, 0, s.pathFirstHit.getBlock());
+            return true;
         }
 
         return false;
     }
 
+    private boolean checkJesusViolation(MovementSnapshot s, PlayerMovementData data, BlockContext context) {
+        if (s.allowFlying || s.gliding) return false;
+        if (s.waterBreathing) return false;
 
-
-    private double calculateAverageSpeed(PlayerMovementData data, int samples) {
-        if (data.positionHistory.size() < samples) return 0;
-        MovementSnapshot[] history = data.positionHistory.toArray(new MovementSnapshot[0]);
-        double totalDistance = 0;
-        int actualSamples = 0;
-
-        for (int i = Math.max(0, history.length - samples); i < history.length - 1; i++) {
-            totalDistance += history[i].position.distanceTo(history[i + 1].position);
-            actualSamples++;
+        // Enhanced Jesus detection: standing on the water surface rather than in it
+        if (context.inWater && s.onGround && !s.swimming && context.onWaterSurface) {
+            recordViolation(data, s, ViolationType.WATER_WALK, 0, 0, null);
+            return true;
         }
 
-        return actualSamples > 0 ? totalDistance / actualSamples : 0;
+        return false;
     }
 
-    private boolean isLegitTeleport(ServerPlayerEntity player, Vec3d from, Vec3d to) {
-        return player.isCreative() || player.hasPermissionLevel(2);
-    }
-
-    private void addPositionSnapshot(PlayerMovementData data, Vec3d pos, long time, boolean onGround, double yaw) {
-        data.positionHistory.offer(new MovementSnapshot(pos, time, onGround, yaw));
-        while (data.positionHistory.size() > POSITION_HISTORY_SIZE) {
-            data.positionHistory.poll();
-        }
+    private boolean isLegitTeleport(MovementSnapshot s) {
+        return s.creative || s.trusted;
     }
 
     private void updateAirTime(PlayerMovementData data, boolean onGround) {
@@ -655,45 +625,59 @@ private boolean checkVerticalViolation(ServerPlayerEntity player, PlayerMovement
         }
     }
 
-    private void recordViolation(PlayerMovementData data, ServerPlayerEntity player, String reason) {
+    private void recordViolation(PlayerMovementData data, MovementSnapshot s, ViolationType type,
+                                 double value, double limit, Object context) {
         data.violationCount++;
-        data.lastViolation = System.currentTimeMillis();
-
-        // Add debug logging with safety checks
-        try {
-            System.out.println("[AntiCheat] Movement violation by " + player.getName().getString() +
-                    ": " + reason + " (Total: " + data.violationCount + ")");
-        } catch (Exception e) {
-            System.out.println("[AntiCheat] Movement violation by unknown player: " + reason + 
-                    " (Total: " + data.violationCount + ")");
-        }
+        data.lastViolation = s.time;
+        riskScores.recordViolation(s.playerId, 1.0);
 
-        remediate(player, data, reason);
+        violations.publish(new ViolationEvent(s.time, s.playerId, s.playerName, type, value, limit, context, data.violationCount));
     }
 
-    private void remediate(ServerPlayerEntity player, PlayerMovementData data, String reason) {
+    /**
+     * Decides what to do about the violation just recorded. Runs with the checks; {@link #apply} acts on it.
+     */
+    private MovementVerdict remediate(PlayerMovementData data, MovementSnapshot s) {
+        Vec3d teleportTo = null;
+        String message = null;
+
         // Be much more lenient with teleporting back
         if (data.violationCount > 8 && data.lastValidPosition != null) {
+            teleportTo = data.lastValidPosition;
+        }
+
+        if (data.violationCount == 10) {
+            message = "§6[AntiCheat] §eMovement irregularities detected";
+        }
+
+        if (data.violationCount == 15) {
+            message = "§c[AntiCheat] §cSuspicious movement patterns detected";
+        }
+
+        return new MovementVerdict(s.playerId, teleportTo, message, data.violationCount > MAX_VIOLATIONS_BEFORE_KICK);
+    }
+
+    /**
+     * Carries out a verdict. Server thread only.
+     */
+    void apply(MovementVerdict verdict, ServerPlayerEntity player) {
+        if (verdict.teleportTo != null) {
             try {
-                player.requestTeleport(data.lastValidPosition.x, data.lastValidPosition.y, data.lastValidPosition.z);
+                player.requestTeleport(verdict.teleportTo.x, verdict.teleportTo.y, verdict.teleportTo.z);
             } catch (Exception e) {
                 System.out.println("[AntiCheat] Failed to teleport player back: " + e.getMessage());
             }
         }
 
-        try {
-            if (data.violationCount == 10) {
-                player.sendMessage(net.minecraft.text.Text.of("§6[AntiCheat] §eMovement irregularities detected"));
-            }
-
-            if (data.violationCount == 15) {
-                player.sendMessage(net.minecraft.text.Text.of("§c[AntiCheat] §cSuspicious movement patterns detected"));
+        if (verdict.message != null) {
+            try {
+                player.sendMessage(net.minecraft.text.Text.of(verdict.message));
+            } catch (Exception e) {
+                System.out.println("[AntiCheat] Failed to send message to player: " + e.getMessage());
             }
-        } catch (Exception e) {
-            System.out.println("[AntiCheat] Failed to send message to player: " + e.getMessage());
         }
 
-        if (data.violationCount > MAX_VIOLATIONS_BEFORE_KICK) {
+        if (verdict.kick) {
             try {
                 System.out.println("[AntiCheat] Player " + player.getName().getString() + " should be kicked for violations");
                 removePlayer(player);
@@ -720,17 +704,37 @@ private boolean checkVerticalViolation(ServerPlayerEntity player, PlayerMovement
         }
     }
 
+    /**
+     * Visits a slice of the player data, so every entry is decayed and expired about once per
+     * {@link #MAINTENANCE_PASS_TICKS} calls without sweeping the whole map in one tick.
+     */
     public void performMaintenance() {
         long currentTime = System.currentTimeMillis();
-        playerData.values().forEach(data -> {
+        if (maintenanceCursor == null || !maintenanceCursor.hasNext()) {
+            maintenanceCursor = playerData.values().iterator();
+        }
+
+        int slice = (playerData.size() + MAINTENANCE_PASS_TICKS - 1) / MAINTENANCE_PASS_TICKS;
+        for (int i = 0; i < slice && maintenanceCursor.hasNext(); i++) {
+            PlayerMovementData data = maintenanceCursor.next();
             if (currentTime - data.lastViolation > VIOLATION_RESET_TIME) {
                 data.violationCount = Math.max(0, data.violationCount - 1);
             }
-        });
-        playerData.entrySet().removeIf(entry ->
-                currentTime - entry.getValue().lastViolation > VIOLATION_RESET_TIME * 2 &&
-                        entry.getValue().violationCount == 0
-        );
+            if (currentTime - data.lastViolation > VIOLATION_RESET_TIME * 2 &&
+                    currentTime - data.lastUpdate > VIOLATION_RESET_TIME * 2 &&
+                    data.violationCount == 0) {
+                maintenanceCursor.remove();
+            }
+        }
+    }
+
+    /**
+     * Marks a changed block stale in every cached window that contains it.
+     */
+    public void invalidateBlock(BlockPos pos) {
+        for (PlayerMovementData data : playerData.values()) {
+            data.blockWindow.invalidate(pos);
+        }
     }
 
     public void removePlayer(ServerPlayerEntity player) {
@@ -0,0 +1,139 @@
+package net.landonis.dashboardmod.anticheat;
+
+/**
+ * Fixed-size history of a player's recent positions, stored as parallel primitive arrays.
+ *
+ * Besides the raw samples it keeps the 3D distance of every step (sample to sample) and, over
+ * the last {@code windowSteps} steps, a running sum and a monotonic queue of step indices. That
+ * makes the average and peak step distance O(1) to read, and recording a sample allocates nothing.
+ */
+public class MovementHistory {
+    private static final int RESYNC_INTERVAL = 1024; // recompute the running sum to shed rounding drift
+
+    private final int capacity;
+    private final int windowSteps;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final long[] times;
+    private final boolean[] onGround;
+    private final float[] yaws;
+    private final double[] stepDistances; // distance from the previous sample to this one
+
+    private long count = 0; // total samples ever recorded; slot is count % capacity
+
+    private double windowSum = 0.0;
+    private int windowSize = 0;
+
+    // Monotonic queue of sample numbers whose step distances are decreasing; front is the window peak
+    private final long[] peakQueue;
+    private int peakHead = 0;
+    private int peakSize = 0;
+
+    /**
+     * @param capacity    samples kept
+     * @param windowSteps steps covered by {@link #averageStep()} and {@link #peakStep()}; less than capacity
+     */
+    public MovementHistory(int capacity, int windowSteps) {
+        this.capacity = capacity;
+        this.windowSteps = Math.min(windowSteps, capacity - 1);
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        this.zs = new double[capacity];
+        this.times = new long[capacity];
+        this.onGround = new boolean[capacity];
+        this.yaws = new float[capacity];
+        this.stepDistances = new double[capacity];
+        this.peakQueue = new long[this.windowSteps];
+    }
+
+    // ===== Recording =====
+
+    public void add(double x, double y, double z, long time, boolean ground, float yaw) {
+        int slot = slot(count);
+        double step = 0.0;
+        if (count > 0) {
+            int prev = slot(count - 1);
+            double dx = x - xs[prev], dy = y - ys[prev], dz = z - zs[prev];
+            step = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+
+        xs[slot] = x;
+        ys[slot] = y;
+        zs[slot] = z;
+        times[slot] = time;
+        onGround[slot] = ground;
+        yaws[slot] = yaw;
+        stepDistances[slot] = step;
+        long sample = count++;
+
+        if (sample == 0) return; // the first sample has no step
+
+        // Slide the window: add the new step, drop the one that fell out
+        windowSum += step;
+        if (windowSize < windowSteps) {
+            windowSize++;
+        } else {
+            windowSum -= stepDistances[slot(sample - windowSteps)];
+        }
+        if (sample % RESYNC_INTERVAL == 0) {
+            windowSum = 0.0;
+            for (int i = 0; i < windowSize; i++) {
+                windowSum += stepDistances[slot(sample - i)];
+            }
+        }
+
+        // Expire the peak candidate that left the window, then keep the queue decreasing
+        if (peakSize > 0 && peakQueue[peakHead] <= sample - windowSteps) {
+            peakHead = (peakHead + 1) % peakQueue.length;
+            peakSize--;
+        }
+        while (peakSize > 0 && stepDistances[slot(peakQueue[(peakHead + peakSize - 1) % peakQueue.length])] <= step) {
+            peakSize--;
+        }
+        peakQueue[(peakHead + peakSize) % peakQueue.length] = sample;
+        peakSize++;
+    }
+
+    public void clear() {
+        count = 0;
+        windowSum = 0.0;
+        windowSize = 0;
+        peakHead = 0;
+        peakSize = 0;
+    }
+
+    // ===== Reading =====
+
+    public int size() {
+        return (int) Math.min(count, capacity);
+    }
+
+    /** True once the window holds {@code windowSteps} steps. */
+    public boolean isWindowFull() {
+        return windowSize == windowSteps;
+    }
+
+    /** Mean distance per step over the window, or 0 if no step has been recorded. */
+    public double averageStep() {
+        return windowSize > 0 ? windowSum / windowSize : 0.0;
+    }
+
+    /** Largest single step distance over the window, or 0 if no step has been recorded. */
+    public double peakStep() {
+        return peakSize > 0 ? stepDistances[slot(peakQueue[peakHead])] : 0.0;
+    }
+
+    /** Sample {@code age} ticks ago (0 = latest). Callers must keep age below {@link #size()}. */
+    public double x(int age) { return xs[slot(count - 1 - age)]; }
+    public double y(int age) { return ys[slot(count - 1 - age)]; }
+    public double z(int age) { return zs[slot(count - 1 - age)]; }
+    public long time(int age) { return times[slot(count - 1 - age)]; }
+    public boolean onGround(int age) { return onGround[slot(count - 1 - age)]; }
+    public float yaw(int age) { return yaws[slot(count - 1 - age)]; }
+
+    private int slot(long sample) {
+        return (int) (sample % capacity);
+    }
+}
@@ -0,0 +1,182 @@
+package net.landonis.dashboardmod.anticheat;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs the movement checks of all players on a worker pool instead of the server thread.
+ *
+ * Between ticks, while the server handles incoming packets, one snapshot is captured per move
+ * packet, within the time budget of an {@link AntiCheatScheduler}. At the start of a tick
+ * {@link #dispatch()} hands them to the workers, grouped so each player's moves stay in order in
+ * one batch, and at the end of the tick {@link #drain} waits for the batches and applies the
+ * verdicts (teleport-backs, messages, kicks) on the server thread. Packets are not handled during
+ * the tick itself, so a player's checks never run concurrently with the capture of their next move.
+ *
+ * Server thread only, apart from the evaluation itself.
+ */
+public class MovementPipeline {
+    private static final int BATCH_SIZE = 16; // snapshots per worker task
+    private static final int MAX_WORKERS = 4;
+
+    private final MovementAntiCheat movementAntiCheat;
+    private final AntiCheatScheduler scheduler;
+    private final AntiCheatLoad load;
+    private final RiskScores riskScores;
+    private ExecutorService workers;
+    private long tick = 0;
+
+    private List<MovementAntiCheat.MovementSnapshot> captured = new ArrayList<>();
+    private final List<Future<List<MovementAntiCheat.MovementVerdict>>> inFlight = new ArrayList<>();
+
+    public MovementPipeline(MovementAntiCheat movementAntiCheat, AntiCheatScheduler scheduler,
+                            AntiCheatLoad load, RiskScores riskScores) {
+        this.movementAntiCheat = movementAntiCheat;
+        this.scheduler = scheduler;
+        this.load = load;
+        this.riskScores = riskScores;
+    }
+
+    // ===== Server thread =====
+
+    /**
+     * Stage one: snapshot one move packet's move for the next dispatch. The swept-box scan only
+     * runs in full load mode, on ticks the player's risk score makes it due, and while the tick's
+     * budget lasts; in sampling mode most players are skipped.
+     */
+    public void capture(ServerPlayerEntity player, Vec3d fromPos, Vec3d toPos) {
+        if (!load.isSampled(player.getUuid())) return;
+
+        // Scans shed by load mode or not due by risk are not budget deferrals
+        boolean scanPath = false;
+        if (load.allowsExpensiveChecks() && riskScores.isDue(player.getUuid(), tick)) {
+            if (movementAntiCheat.needsPathScan(player, fromPos, toPos)) {
+                scanPath = scheduler.tryExpensive(player.getUuid(), player.getName().getString());
+            } else {
+                scheduler.markUpToDate(player.getUuid());
+            }
+        }
+
+        long start = scanPath ? System.nanoTime() : 0;
+        captured.add(movementAntiCheat.capture(player, fromPos, toPos, scanPath));
+        if (scanPath) {
+            scheduler.charge(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Stage two: evaluate everything captured since the last dispatch on the worker pool, and
+     * start the budget for the next captures.
+     */
+    public void dispatch() {
+        tick++;
+        scheduler.beginTick();
+        movementAntiCheat.endCaptureCycle();
+        if (captured.isEmpty()) return;
+        if (workers == null) {
+            workers = createWorkers();
+        }
+
+        List<MovementAntiCheat.MovementSnapshot> batch = captured;
+        captured = new ArrayList<>();
+
+        // A player's snapshots share their data and must be evaluated in order, so they go to one batch
+        int batchCount = (batch.size() + BATCH_SIZE - 1) / BATCH_SIZE;
+        List<List<MovementAntiCheat.MovementSnapshot>> batches = new ArrayList<>(batchCount);
+        for (int i = 0; i < batchCount; i++) {
+            batches.add(new ArrayList<>(BATCH_SIZE));
+        }
+        for (MovementAntiCheat.MovementSnapshot snapshot : batch) {
+            batches.get(Math.floorMod(snapshot.playerId.hashCode(), batchCount)).add(snapshot);
+        }
+        for (List<MovementAntiCheat.MovementSnapshot> slice : batches) {
+            if (!slice.isEmpty()) {
+                inFlight.add(workers.submit(() -> evaluateBatch(slice)));
+            }
+        }
+    }
+
+    /**
+     * Stage three: wait for the dispatched checks and apply their verdicts. Players who left in the
+     * meantime are skipped; onViolation is called for every player whose move failed.
+     */
+    public void drain(MinecraftServer server, Consumer<ServerPlayerEntity> onViolation) {
+        if (inFlight.isEmpty()) return;
+
+        for (Future<List<MovementAntiCheat.MovementVerdict>> future : inFlight) {
+            List<MovementAntiCheat.MovementVerdict> verdicts;
+            try {
+                verdicts = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                System.err.println("[AntiCheat] Movement check batch failed: " + e.getCause());
+                continue;
+            }
+
+            for (MovementAntiCheat.MovementVerdict verdict : verdicts) {
+                ServerPlayerEntity player = server.getPlayerManager().getPlayer(verdict.playerId);
+                if (player == null) continue;
+                movementAntiCheat.apply(verdict, player);
+                onViolation.accept(player);
+            }
+        }
+        inFlight.clear();
+    }
+
+    public void shutdown() {
+        captured.clear();
+        inFlight.clear();
+        if (workers == null) return;
+
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        workers = null;
+    }
+
+    // ===== Workers =====
+
+    private List<MovementAntiCheat.MovementVerdict> evaluateBatch(List<MovementAntiCheat.MovementSnapshot> batch) {
+        List<MovementAntiCheat.MovementVerdict> verdicts = new ArrayList<>();
+        for (MovementAntiCheat.MovementSnapshot snapshot : batch) {
+            try {
+                MovementAntiCheat.MovementVerdict verdict = movementAntiCheat.evaluate(snapshot);
+                if (verdict != null) {
+                    verdicts.add(verdict);
+                }
+            } catch (Exception e) {
+                System.err.println("[AntiCheat] Movement check failed for " + snapshot.playerName + ": " + e.getMessage());
+            }
+        }
+        return verdicts;
+    }
+
+    private static ExecutorService createWorkers() {
+        int threads = Math.max(1, Math.min(MAX_WORKERS, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "AntiCheat-Movement-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
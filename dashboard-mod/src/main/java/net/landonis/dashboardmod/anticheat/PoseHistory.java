@@ -0,0 +1,78 @@
+package net.landonis.dashboardmod.anticheat;
+
+/**
+ * Fixed-size history of a player's pose, one sample per server tick, stored as parallel primitive
+ * arrays. Samples are read by age, 0 being the most recent, so looking a few ticks back is a
+ * single indexed read and recording allocates nothing.
+ */
+public class PoseHistory {
+    private final int mask;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final float[] yaws;
+    private final float[] pitches;
+    private final float[] widths;
+    private final float[] heights;
+    private final float[] eyeHeights;
+
+    private long count = 0; // total samples ever recorded; slot is count & mask
+
+    /**
+     * @param capacity samples kept; must be a power of two
+     */
+    public PoseHistory(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        this.zs = new double[capacity];
+        this.yaws = new float[capacity];
+        this.pitches = new float[capacity];
+        this.widths = new float[capacity];
+        this.heights = new float[capacity];
+        this.eyeHeights = new float[capacity];
+    }
+
+    // ===== Recording =====
+
+    public void add(double x, double y, double z, float yaw, float pitch, float width, float height, float eyeHeight) {
+        int slot = (int) (count & mask);
+        xs[slot] = x;
+        ys[slot] = y;
+        zs[slot] = z;
+        yaws[slot] = yaw;
+        pitches[slot] = pitch;
+        widths[slot] = width;
+        heights[slot] = height;
+        eyeHeights[slot] = eyeHeight;
+        count++;
+    }
+
+    // ===== Queries =====
+
+    public int size() {
+        return (int) Math.min(count, mask + 1);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    private int slot(int age) {
+        return (int) ((count - 1 - age) & mask);
+    }
+
+    // Accessors by age, 0 = most recent; age must be below size()
+    public double x(int age) { return xs[slot(age)]; }
+    public double y(int age) { return ys[slot(age)]; }
+    public double z(int age) { return zs[slot(age)]; }
+    public float yaw(int age) { return yaws[slot(age)]; }
+    public float pitch(int age) { return pitches[slot(age)]; }
+    public float width(int age) { return widths[slot(age)]; }
+    public float height(int age) { return heights[slot(age)]; }
+    public float eyeHeight(int age) { return eyeHeights[slot(age)]; }
+}
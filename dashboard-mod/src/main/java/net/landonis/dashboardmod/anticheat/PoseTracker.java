@@ -0,0 +1,52 @@
+package net.landonis.dashboardmod.anticheat;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a {@link PoseHistory} per online player, one sample per tick, so checks can look at where a
+ * player was when their client acted rather than where the server has them now.
+ *
+ * The history covers a little over a second; {@link #rewindTicks} turns a player's measured latency
+ * into the age of the sample to read, which is then a single indexed lookup. Server thread only.
+ */
+public class PoseTracker {
+    private static final int HISTORY_TICKS = 32;      // power of two, 1.6 seconds
+    private static final int MAX_REWIND_TICKS = 20;   // 1 second; higher pings get no further benefit
+    private static final int TICK_MS = 50;
+
+    private final Map<UUID, PoseHistory> poses = new ConcurrentHashMap<>();
+
+    /**
+     * Records the player's pose for this tick - call once per tick for every player.
+     */
+    public void record(ServerPlayerEntity player) {
+        PoseHistory history = poses.computeIfAbsent(player.getUuid(), id -> new PoseHistory(HISTORY_TICKS));
+        history.add(player.getX(), player.getY(), player.getZ(), player.getYaw(), player.getPitch(),
+                player.getWidth(), player.getHeight(), player.getStandingEyeHeight());
+    }
+
+    /**
+     * The player's history, or null if nothing has been recorded for them yet.
+     */
+    public PoseHistory get(UUID playerId) {
+        PoseHistory history = poses.get(playerId);
+        return history != null && history.size() > 0 ? history : null;
+    }
+
+    /**
+     * Ticks between what the player's client showed and what the server has now: their measured
+     * round-trip latency, rounded up to whole ticks and capped at MAX_REWIND_TICKS.
+     */
+    public static int rewindTicks(ServerPlayerEntity player) {
+        int latency = Math.max(0, player.networkHandler.getLatency());
+        return Math.min(MAX_REWIND_TICKS, (latency + TICK_MS - 1) / TICK_MS);
+    }
+
+    public void remove(UUID playerId) {
+        poses.remove(playerId);
+    }
+}
@@ -0,0 +1,105 @@
+package net.landonis.dashboardmod.anticheat;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-player risk score that sets how often the expensive checks run for that player.
+ *
+ * Every movement or rate-limit violation adds to the score, and the score halves every
+ * {@link #HALF_LIFE_MS}. Players new to the server start with {@link #NEW_PLAYER_SCORE}. The score
+ * maps linearly onto a check interval: {@link #HIGH_RISK_SCORE} and above is checked every tick,
+ * a clean player every {@link #MAX_INTERVAL_TICKS}th tick.
+ *
+ * Violations are recorded from the movement workers as well as the server thread, so each entry
+ * is updated under its own lock.
+ */
+public class RiskScores {
+    private static final long HALF_LIFE_MS = 5 * 60_000;  // 5 minutes
+    private static final double HIGH_RISK_SCORE = 3.0;
+    private static final int MAX_INTERVAL_TICKS = 10;
+    private static final double NEW_PLAYER_SCORE = 2.0;
+    /** Below this much play time a player is treated as new */
+    private static final long NEW_PLAYER_TICKS = 20 * 60 * 60; // 1 hour
+    /** Scores below this are as good as zero and their entries are dropped */
+    private static final double NEGLIGIBLE_SCORE = 0.01;
+    private static final long PRUNE_INTERVAL_MS = 60_000;
+
+    // Kept across disconnects, so relogging does not clear a score; entries go once they decay away
+    private final Map<UUID, Risk> risks = new ConcurrentHashMap<>();
+    private long lastPrune = System.currentTimeMillis();
+
+    private static final class Risk {
+        private double score;
+        private long updatedAt;
+
+        Risk(double score, long now) {
+            this.score = score;
+            this.updatedAt = now;
+        }
+
+        synchronized double decayedTo(long now) {
+            long elapsed = now - updatedAt;
+            if (elapsed > 0) {
+                score *= Math.pow(0.5, (double) elapsed / HALF_LIFE_MS);
+                updatedAt = now;
+            }
+            return score;
+        }
+
+        synchronized void add(double amount, long now) {
+            decayedTo(now);
+            score += amount;
+        }
+    }
+
+    // ===== Updates =====
+
+    /**
+     * Seeds the score of a joining player from their play time on this server.
+     */
+    public void onJoin(UUID playerId, long playTimeTicks) {
+        double initial = playTimeTicks < NEW_PLAYER_TICKS ? NEW_PLAYER_SCORE : 0.0;
+        risks.computeIfAbsent(playerId, id -> new Risk(initial, System.currentTimeMillis()));
+    }
+
+    public void recordViolation(UUID playerId, double weight) {
+        long now = System.currentTimeMillis();
+        risks.computeIfAbsent(playerId, id -> new Risk(0.0, now)).add(weight, now);
+    }
+
+    /**
+     * Drops entries that have decayed to nothing, at most once per PRUNE_INTERVAL_MS.
+     */
+    public void performMaintenance() {
+        long now = System.currentTimeMillis();
+        if (now - lastPrune < PRUNE_INTERVAL_MS) return;
+        lastPrune = now;
+        risks.values().removeIf(risk -> risk.decayedTo(now) < NEGLIGIBLE_SCORE);
+    }
+
+    // ===== Queries =====
+
+    public double getScore(UUID playerId) {
+        Risk risk = risks.get(playerId);
+        return risk != null ? risk.decayedTo(System.currentTimeMillis()) : 0.0;
+    }
+
+    /**
+     * Ticks between expensive checks for this player: 1 at high risk, up to MAX_INTERVAL_TICKS when clean.
+     */
+    public int getCheckInterval(UUID playerId) {
+        double fraction = Math.min(1.0, getScore(playerId) / HIGH_RISK_SCORE);
+        return (int) Math.round(MAX_INTERVAL_TICKS - fraction * (MAX_INTERVAL_TICKS - 1));
+    }
+
+    /**
+     * Whether the expensive checks are due for this player on this tick. Players with the same
+     * interval are spread over different ticks by their id.
+     */
+    public boolean isDue(UUID playerId, long tick) {
+        int interval = getCheckInterval(playerId);
+        return interval <= 1 || Math.floorMod(playerId.hashCode() + tick, interval) == 0;
+    }
+}
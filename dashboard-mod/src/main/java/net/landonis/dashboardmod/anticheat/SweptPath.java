@@ -0,0 +1,129 @@
+package net.landonis.dashboardmod.anticheat;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.shape.VoxelShape;
+
+/**
+ * Sweeps a player's bounding box along a straight move and reports the blocks it passes through.
+ *
+ * Every block the swept box can touch is read: the cells covered by the box at the start and end
+ * of the move, plus one row below for fences and walls whose collision boxes rise above their
+ * cell. For each colliding block, every collision box is grown by the player's half extents and
+ * the centre line of the move is clipped against it, which is the exact swept-AABB test. Cells in
+ * the corners of a diagonal move's bounds that the box never reaches are rejected by that test, so
+ * a thin block cannot be stepped over and a block beside the path is never counted.
+ */
+public class SweptPath {
+
+    /** Shrinks the player box slightly so sliding along a surface is not counted as entering it */
+    private static final double SKIN = 1.0E-3;
+    /** Upper bound on blocks read; moves that sweep more than this are teleports and handled elsewhere */
+    private static final int MAX_BLOCKS = 512;
+
+    private final double[] range = new double[2];
+    private int hits;
+    private BlockState firstHit;
+
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * The colliding block the box enters earliest along the move, or null if there is none.
+     */
+    public BlockState getFirstHit() {
+        return firstHit;
+    }
+
+    /**
+     * Scans the move of a box with the given feet positions and size, stopping after maxHits colliding blocks.
+     *
+     * @return this, with {@link #getHits()} and {@link #getFirstHit()} filled in
+     */
+    public SweptPath scan(ServerWorld world, Vec3d from, Vec3d to, double width, double height, int maxHits) {
+        hits = 0;
+        firstHit = null;
+
+        double halfX = width / 2.0 - SKIN;
+        double halfY = height / 2.0 - SKIN;
+        double halfZ = halfX;
+
+        // Centre line of the box
+        double ox = from.x, oy = from.y + height / 2.0, oz = from.z;
+        double dx = to.x - from.x, dy = to.y - from.y, dz = to.z - from.z;
+
+        // Cells covered by the box anywhere along the move
+        int minX = MathHelper.floor(Math.min(ox, ox + dx) - halfX);
+        int maxX = MathHelper.floor(Math.max(ox, ox + dx) + halfX);
+        int minY = MathHelper.floor(Math.min(oy, oy + dy) - halfY) - 1;
+        int maxY = MathHelper.floor(Math.max(oy, oy + dy) + halfY);
+        int minZ = MathHelper.floor(Math.min(oz, oz + dz) - halfZ);
+        int maxZ = MathHelper.floor(Math.max(oz, oz + dz) + halfZ);
+        long cells = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        if (cells > MAX_BLOCKS) return this;
+
+        BlockPos.Mutable cursor = new BlockPos.Mutable();
+        double firstEnter = Double.POSITIVE_INFINITY;
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int y = minY; y <= maxY; y++) {
+                    cursor.set(x, y, z);
+                    BlockState state = world.getBlockState(cursor);
+                    if (!BlockClassification.is(state, BlockClassification.COLLIDES)) continue;
+
+                    double enter = sweepEnter(state.getCollisionShape(world, cursor), x, y, z,
+                            ox, oy, oz, dx, dy, dz, halfX, halfY, halfZ);
+                    if (enter == Double.POSITIVE_INFINITY) continue;
+                    if (enter < firstEnter) {
+                        firstEnter = enter;
+                        firstHit = state;
+                    }
+                    if (++hits >= maxHits) return this;
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Earliest t in [0, 1] at which the centre line enters a collision box of the shape grown by the
+     * half extents, or positive infinity if it never does.
+     */
+    private double sweepEnter(VoxelShape shape, int bx, int by, int bz,
+                              double ox, double oy, double oz, double dx, double dy, double dz,
+                              double halfX, double halfY, double halfZ) {
+        if (shape.isEmpty()) return Double.POSITIVE_INFINITY;
+        double earliest = Double.POSITIVE_INFINITY;
+        for (Box box : shape.getBoundingBoxes()) {
+            range[0] = 0.0;
+            range[1] = 1.0;
+            if (!clip(ox, dx, bx + box.minX - halfX, bx + box.maxX + halfX, range)) continue;
+            if (!clip(oy, dy, by + box.minY - halfY, by + box.maxY + halfY, range)) continue;
+            if (!clip(oz, dz, bz + box.minZ - halfZ, bz + box.maxZ + halfZ, range)) continue;
+            earliest = Math.min(earliest, range[0]);
+        }
+        return earliest;
+    }
+
+    /** Slab test: narrows range to where origin + t * delta lies strictly inside (min, max). */
+    private static boolean clip(double origin, double delta, double min, double max, double[] range) {
+        if (delta == 0.0) {
+            return origin > min && origin < max;
+        }
+        double ta = (min - origin) / delta;
+        double tb = (max - origin) / delta;
+        if (ta > tb) {
+            double swap = ta;
+            ta = tb;
+            tb = swap;
+        }
+        if (ta > range[0]) range[0] = ta;
+        if (tb < range[1]) range[1] = tb;
+        return range[0] < range[1];
+    }
+}
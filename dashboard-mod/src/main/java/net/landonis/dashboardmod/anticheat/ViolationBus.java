@@ -0,0 +1,199 @@
+package net.landonis.dashboardmod.anticheat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Carries violation events from the checks to the sinks without blocking the thread that found them.
+ *
+ * Publishing is a single lock-free offer into a bounded {@link ViolationRing}; when the ring is
+ * full the event is counted and dropped. One daemon thread drains the ring and hands events to the
+ * sinks. Under a flood it stops passing every event on: each player gets at most
+ * {@link #MAX_EVENTS_PER_PLAYER} events per second and the whole bus {@link #MAX_EVENTS_PER_SECOND},
+ * and whatever was held back is reported as one {@link ViolationType#SUPPRESSED} summary per player
+ * at the end of the second, along with a {@link ViolationType#DROPPED} count if the ring overflowed.
+ */
+public class ViolationBus {
+    private static final int CAPACITY = 4096;
+    private static final int DRAIN_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long WINDOW_MS = 1_000;
+    private static final int MAX_EVENTS_PER_PLAYER = 5;
+    private static final int MAX_EVENTS_PER_SECOND = 100;
+
+    private final ViolationRing<ViolationEvent> ring = new ViolationRing<>(CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<ViolationSink> sinks = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running = false;
+    private Thread consumer;
+
+    // Summarization state, bus thread only
+    private long windowStart = 0;
+    private int emittedInWindow = 0;
+    private final Map<UUID, PlayerWindow> playerWindows = new HashMap<>();
+
+    private static final class PlayerWindow {
+        final String playerName;
+        int emitted;
+        int suppressed;
+        final int[] suppressedByType = new int[ViolationType.values().length];
+
+        PlayerWindow(String playerName) {
+            this.playerName = playerName;
+        }
+    }
+
+    public void addSink(ViolationSink sink) {
+        sinks.add(sink);
+    }
+
+    // ===== Producers (any thread) =====
+
+    public void publish(ViolationEvent event) {
+        if (!ring.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // ===== Lifecycle =====
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        consumer = new Thread(this::run, "AntiCheat-ViolationBus");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Stops the bus thread after it has delivered what is already queued, then closes the sinks.
+     */
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        consumer = null;
+    }
+
+    // ===== Bus thread =====
+
+    private void run() {
+        windowStart = System.currentTimeMillis();
+        while (running) {
+            int drained = drain();
+            rollWindow(System.currentTimeMillis(), false);
+            if (drained == 0) {
+                flushSinks();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+
+        // Deliver what was queued before the stop, then report anything held back
+        while (drain() > 0) {
+            // keep draining
+        }
+        rollWindow(System.currentTimeMillis(), true);
+        for (ViolationSink sink : sinks) {
+            try {
+                sink.flush();
+                sink.close();
+            } catch (Exception e) {
+                System.err.println("[AntiCheat] Violation sink failed to close: " + e.getMessage());
+            }
+        }
+    }
+
+    private int drain() {
+        int count = 0;
+        ViolationEvent event;
+        while (count < DRAIN_BATCH && (event = ring.poll()) != null) {
+            count++;
+            if (admit(event)) {
+                deliver(event);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Rate limit per player and overall; held-back events are counted for the window's summary.
+     */
+    private boolean admit(ViolationEvent event) {
+        if (event.playerId == null) {
+            return true;
+        }
+        PlayerWindow window = playerWindows.computeIfAbsent(event.playerId, id -> new PlayerWindow(event.playerName));
+        if (window.emitted < MAX_EVENTS_PER_PLAYER && emittedInWindow < MAX_EVENTS_PER_SECOND) {
+            window.emitted++;
+            emittedInWindow++;
+            return true;
+        }
+        window.suppressed++;
+        window.suppressedByType[event.type.ordinal()]++;
+        return false;
+    }
+
+    private void rollWindow(long now, boolean force) {
+        if (!force && now - windowStart < WINDOW_MS) return;
+
+        for (Map.Entry<UUID, PlayerWindow> entry : playerWindows.entrySet()) {
+            PlayerWindow window = entry.getValue();
+            if (window.suppressed > 0) {
+                deliver(new ViolationEvent(now, entry.getKey(), window.playerName, ViolationType.SUPPRESSED,
+                        window.suppressed, 0, breakdown(window), 0));
+            }
+        }
+        long droppedCount = dropped.getAndSet(0);
+        if (droppedCount > 0) {
+            deliver(new ViolationEvent(now, null, null, ViolationType.DROPPED, droppedCount, 0, null, 0));
+        }
+
+        playerWindows.clear();
+        emittedInWindow = 0;
+        windowStart = now;
+    }
+
+    private static String breakdown(PlayerWindow window) {
+        ViolationType[] types = ViolationType.values();
+        List<String> parts = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            if (window.suppressedByType[i] > 0) {
+                parts.add(types[i] + " x" + window.suppressedByType[i]);
+            }
+        }
+        return String.join(", ", parts);
+    }
+
+    private void deliver(ViolationEvent event) {
+        for (ViolationSink sink : sinks) {
+            try {
+                sink.accept(event);
+            } catch (Exception e) {
+                System.err.println("[AntiCheat] Violation sink failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void flushSinks() {
+        for (ViolationSink sink : sinks) {
+            try {
+                sink.flush();
+            } catch (Exception e) {
+                System.err.println("[AntiCheat] Violation sink failed to flush: " + e.getMessage());
+            }
+        }
+    }
+}
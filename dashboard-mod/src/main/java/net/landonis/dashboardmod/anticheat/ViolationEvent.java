@@ -0,0 +1,34 @@
+package net.landonis.dashboardmod.anticheat;
+
+import java.util.UUID;
+
+/**
+ * One reported violation. Producers only fill in fields; the text is built by the sinks, off the
+ * thread that detected the violation.
+ */
+public final class ViolationEvent {
+    public final long time;
+    public final UUID playerId;     // null for events about the bus itself
+    public final String playerName;
+    public final ViolationType type;
+    public final double value;
+    public final double limit;
+    public final Object context;    // formatted with toString() when described, may be null
+    public final int total;         // player's violation count after this one
+
+    public ViolationEvent(long time, UUID playerId, String playerName, ViolationType type,
+                          double value, double limit, Object context, int total) {
+        this.time = time;
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.type = type;
+        this.value = value;
+        this.limit = limit;
+        this.context = context;
+        this.total = total;
+    }
+
+    public String describe() {
+        return type.format(value, limit, context);
+    }
+}
@@ -0,0 +1,85 @@
+package net.landonis.dashboardmod.anticheat;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free multi-producer multi-consumer queue (Vyukov's array queue).
+ *
+ * Each slot carries a sequence number: a producer may fill slot {@code pos & mask} once its
+ * sequence equals {@code pos}, a consumer may empty it once it equals {@code pos + 1}. Claiming a
+ * position is a single CAS, so producers never block and a full ring simply rejects the offer.
+ * The element itself is published by the volatile write of the slot's sequence.
+ */
+final class ViolationRing<E> {
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    ViolationRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if the ring is full
+     */
+    boolean offer(E element) {
+        long pos = enqueuePosition.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long difference = sequences.get(index) - pos;
+            if (difference == 0) {
+                if (enqueuePosition.compareAndSet(pos, pos + 1)) {
+                    elements[index] = element;
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = enqueuePosition.get();
+            } else if (difference < 0) {
+                return false; // the slot still holds an element a lap behind
+            } else {
+                pos = enqueuePosition.get(); // another producer claimed it
+            }
+        }
+    }
+
+    /**
+     * @return the oldest element, or null if the ring is empty
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long pos = dequeuePosition.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long difference = sequences.get(index) - (pos + 1);
+            if (difference == 0) {
+                if (dequeuePosition.compareAndSet(pos, pos + 1)) {
+                    E element = (E) elements[index];
+                    elements[index] = null;
+                    sequences.set(index, pos + mask + 1);
+                    return element;
+                }
+                pos = dequeuePosition.get();
+            } else if (difference < 0) {
+                return null; // not yet published
+            } else {
+                pos = dequeuePosition.get();
+            }
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
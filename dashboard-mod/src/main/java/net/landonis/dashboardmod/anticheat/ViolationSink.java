@@ -0,0 +1,16 @@
+package net.landonis.dashboardmod.anticheat;
+
+/**
+ * Destination for violation events. Called only from the violation bus thread, so
+ * implementations need no synchronization of their own.
+ */
+public interface ViolationSink {
+
+    void accept(ViolationEvent event);
+
+    /** Called when the bus runs out of events; buffered sinks write out here. */
+    default void flush() {}
+
+    /** Called once when the bus stops. */
+    default void close() {}
+}
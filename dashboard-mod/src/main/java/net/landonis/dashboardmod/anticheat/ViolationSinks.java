@@ -0,0 +1,110 @@
+package net.landonis.dashboardmod.anticheat;
+
+import net.landonis.dashboardmod.DashboardWebSocketClient;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * The built-in violation sinks: console, log file and dashboard WebSocket.
+ */
+public final class ViolationSinks {
+
+    private ViolationSinks() {}
+
+    /**
+     * Writes violations to stdout in the anticheat's usual log format.
+     */
+    public static final class Console implements ViolationSink {
+        @Override
+        public void accept(ViolationEvent event) {
+            switch (event.type.category) {
+                case MOVEMENT -> System.out.println("[AntiCheat] Movement violation by " + event.playerName +
+                        ": " + event.describe() + " (Total: " + event.total + ")");
+                case ACTION -> {
+                    if (event.type == ViolationType.THRESHOLD_EXCEEDED) {
+                        System.out.println("[AntiCheat] CRITICAL: Player " + event.playerName + " " + event.describe());
+                    } else {
+                        System.out.println("[AntiCheat] SEVERE VIOLATION by " + event.playerName +
+                                ": " + event.describe() + " (Total: " + event.total + ")");
+                    }
+                }
+                case BUS -> System.out.println("[AntiCheat] " +
+                        (event.playerName != null ? event.playerName + ": " : "") + event.describe());
+            }
+        }
+    }
+
+    /**
+     * Appends one line per violation to a log file, opened on the first event.
+     */
+    public static final class LogFile implements ViolationSink {
+        private final File file;
+        private BufferedWriter writer;
+        private boolean failed = false;
+
+        public LogFile(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public void accept(ViolationEvent event) {
+            if (failed) return;
+            try {
+                if (writer == null) {
+                    file.getParentFile().mkdirs();
+                    writer = new BufferedWriter(new FileWriter(file, true));
+                }
+                writer.write(Instant.ofEpochMilli(event.time) + " " + event.type + " " +
+                        (event.playerName != null ? event.playerName : "-") + " " +
+                        (event.playerId != null ? event.playerId : "-") + " total=" + event.total +
+                        " " + event.describe());
+                writer.newLine();
+            } catch (IOException e) {
+                // Stop trying rather than failing on every event
+                failed = true;
+                System.err.println("[AntiCheat] Failed to write violation log " + file + ": " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void flush() {
+            if (writer == null) return;
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                System.err.println("[AntiCheat] Failed to flush violation log: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            if (writer == null) return;
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("[AntiCheat] Failed to close violation log: " + e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    /**
+     * Pushes each violation to the dashboard backend, if connected.
+     */
+    public static final class Dashboard implements ViolationSink {
+        @Override
+        public void accept(ViolationEvent event) {
+            DashboardWebSocketClient.sendViolation(
+                    event.playerName,
+                    event.playerId != null ? event.playerId.toString() : null,
+                    event.type.name(),
+                    event.describe(),
+                    event.total,
+                    event.time);
+        }
+    }
+}
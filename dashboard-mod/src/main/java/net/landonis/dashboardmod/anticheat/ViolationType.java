@@ -0,0 +1,58 @@
+package net.landonis.dashboardmod.anticheat;
+
+/**
+ * Every kind of violation the anticheat reports, with the template that turns an event's
+ * numbers into text. Templates take the value, the limit and the context, in that order.
+ */
+public enum ViolationType {
+    // Movement
+    ILLEGAL_TELEPORT(Category.MOVEMENT, "Illegal teleport: %.2f blocks"),
+    SPEED(Category.MOVEMENT, "Speed hack: %.3f > %.3f%3$s"),
+    CONSISTENT_SPEED(Category.MOVEMENT, "Consistent high speed: %.3f"),
+    MOUNTED_VERTICAL_SPEED(Category.MOVEMENT, "Extreme mounted vertical speed: %.3f"),
+    JUMP_HEIGHT(Category.MOVEMENT, "Jump too high: %.2f > %.2f blocks"),
+    VERTICAL_SPEED(Category.MOVEMENT, "Extreme vertical speed: %.3f"),
+    HOVER(Category.MOVEMENT, "Hovering detected"),
+    MOUNT_PHASE_DISTANCE(Category.MOVEMENT, "Long-distance phase during mount transition: %.2f"),
+    MOUNT_PHASE_BLOCKS(Category.MOVEMENT, "Excessive phasing during mount transition through %.0f blocks"),
+    PHASE(Category.MOVEMENT, "Phase/NoClip through %3$s"),
+    WATER_WALK(Category.MOVEMENT, "Jesus/Water walking"),
+
+    // Actions
+    NUKER(Category.ACTION, "Nuker detected: %.0f blocks in 1 second"),
+    BREAK_SPEED(Category.ACTION, "Impossible break speed: %.0fms"),
+    ACTION_RATE(Category.ACTION, "Impossible action rate: %.0f actions per second"),
+    PLACE_RATE(Category.ACTION, "Impossible action rate during placement: %.0f per second"),
+    ITEM_USE_RATE(Category.ACTION, "Extreme item use exploit detected: %.0f per second"),
+    KILLAURA(Category.ACTION, "Killaura detected: %.0f attacks per second"),
+    ATTACK_SPEED(Category.ACTION, "Impossible attack speed: %.0fms"),
+    AUTOCLICKER(Category.ACTION, "Autoclicker pattern: %.1fms interval deviation, %3$s entropy"),
+    REACH(Category.ACTION, "Reach hack: %.2f > %.2f blocks (%3$s)"),
+    COMBAT_REACH(Category.ACTION, "Hit out of reach: %.2f > %.2f blocks (%3$s)"),
+    LOOK_ANGLE(Category.ACTION, "Hit outside view: %.0f degrees off target > %.0f (%3$s)"),
+    SNAP_ROTATION(Category.ACTION, "Snap rotation onto %.0f consecutive targets"),
+    PACKET_FLOOD(Category.ACTION, "Packet flood: %.0f %3$s packets dropped, limit %.0f per second"),
+    THRESHOLD_EXCEEDED(Category.ACTION, "exceeded severe violation threshold - immediate attention required"),
+
+    // Reported by the bus itself
+    SUPPRESSED(Category.BUS, "%.0f further violations suppressed in the last second (%3$s)"),
+    DROPPED(Category.BUS, "%.0f violation events dropped, event buffer full");
+
+    public enum Category {
+        MOVEMENT,
+        ACTION,
+        BUS
+    }
+
+    public final Category category;
+    private final String template;
+
+    ViolationType(Category category, String template) {
+        this.category = category;
+        this.template = template;
+    }
+
+    String format(double value, double limit, Object context) {
+        return String.format(template, value, limit, context != null ? context : "");
+    }
+}
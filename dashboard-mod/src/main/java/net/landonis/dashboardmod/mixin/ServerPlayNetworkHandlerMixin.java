@@ -0,0 +1,71 @@
+package net.landonis.dashboardmod.mixin;
+
+import net.landonis.dashboardmod.anticheat.ActionRateLimiter.PacketKind;
+import net.landonis.dashboardmod.anticheat.AntiCheatHelper;
+import net.minecraft.network.packet.c2s.play.ClickSlotC2SPacket;
+import net.minecraft.network.packet.c2s.play.HandSwingC2SPacket;
+import net.minecraft.network.packet.c2s.play.PlayerActionC2SPacket;
+import net.minecraft.network.packet.c2s.play.PlayerInteractBlockC2SPacket;
+import net.minecraft.network.packet.c2s.play.PlayerInteractEntityC2SPacket;
+import net.minecraft.network.packet.c2s.play.PlayerInteractItemC2SPacket;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Applies the anticheat's per-packet-kind token buckets before the game handles a player action
+ * packet. Dropped packets are cancelled at the head of the handler, before they are scheduled on
+ * the server thread.
+ */
+@Mixin(ServerPlayNetworkHandler.class)
+public abstract class ServerPlayNetworkHandlerMixin {
+
+    @Shadow
+    public ServerPlayerEntity player;
+
+    @Inject(method = "onPlayerAction", at = @At("HEAD"), cancellable = true)
+    private void dashboardmod$limitPlayerAction(PlayerActionC2SPacket packet, CallbackInfo ci) {
+        dashboardmod$limit(PacketKind.PLAYER_ACTION, ci);
+    }
+
+    @Inject(method = "onPlayerInteractBlock", at = @At("HEAD"), cancellable = true)
+    private void dashboardmod$limitInteractBlock(PlayerInteractBlockC2SPacket packet, CallbackInfo ci) {
+        dashboardmod$limit(PacketKind.INTERACT_BLOCK, ci);
+    }
+
+    @Inject(method = "onPlayerInteractItem", at = @At("HEAD"), cancellable = true)
+    private void dashboardmod$limitInteractItem(PlayerInteractItemC2SPacket packet, CallbackInfo ci) {
+        dashboardmod$limit(PacketKind.INTERACT_ITEM, ci);
+    }
+
+    @Inject(method = "onPlayerInteractEntity", at = @At("HEAD"), cancellable = true)
+    private void dashboardmod$limitInteractEntity(PlayerInteractEntityC2SPacket packet, CallbackInfo ci) {
+        dashboardmod$limit(PacketKind.INTERACT_ENTITY, ci);
+    }
+
+    @Inject(method = "onHandSwing", at = @At("HEAD"), cancellable = true)
+    private void dashboardmod$limitHandSwing(HandSwingC2SPacket packet, CallbackInfo ci) {
+        dashboardmod$limit(PacketKind.HAND_SWING, ci);
+    }
+
+    @Inject(method = "onClickSlot", at = @At("HEAD"), cancellable = true)
+    private void dashboardmod$limitClickSlot(ClickSlotC2SPacket packet, CallbackInfo ci) {
+        dashboardmod$limit(PacketKind.CLICK_SLOT, ci);
+    }
+
+    @Unique
+    private void dashboardmod$limit(PacketKind kind, CallbackInfo ci) {
+        // Each handler runs first on the network thread, which reschedules it onto the server
+        // thread; only that first pass is counted
+        if (player.getServer().isOnThread()) return;
+
+        if (!AntiCheatHelper.allowPacket(player, kind)) {
+            ci.cancel();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package net.landonis.dashboardmod.mixin;
+
+import net.landonis.dashboardmod.anticheat.AntiCheatHelper;
+import net.minecraft.entity.Entity;
+import net.minecraft.network.packet.c2s.play.PlayerMoveC2SPacket;
+import net.minecraft.network.packet.c2s.play.VehicleMoveC2SPacket;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.Vec3d;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Feeds the movement checks one move per move packet: the position before the game handled the
+ * packet and the position after. Ridden players are followed through their vehicle's packets.
+ * Packets that leave the player where they were, and players who send none, cost nothing; moves
+ * the server makes itself (teleports, dismounts) happen between packets and are never seen as moves.
+ */
+@Mixin(ServerPlayNetworkHandler.class)
+public abstract class ServerPlayNetworkHandlerMoveMixin {
+
+    @Shadow
+    public ServerPlayerEntity player;
+
+    // Position of the moving entity when the server thread started handling the current packet
+    @Unique
+    private double dashboardmod$startX;
+    @Unique
+    private double dashboardmod$startY;
+    @Unique
+    private double dashboardmod$startZ;
+    @Unique
+    private boolean dashboardmod$started;
+
+    @Inject(method = "onPlayerMove", at = @At("HEAD"))
+    private void dashboardmod$beforePlayerMove(PlayerMoveC2SPacket packet, CallbackInfo ci) {
+        dashboardmod$begin(player);
+    }
+
+    @Inject(method = "onPlayerMove", at = @At("RETURN"))
+    private void dashboardmod$afterPlayerMove(PlayerMoveC2SPacket packet, CallbackInfo ci) {
+        dashboardmod$end(player);
+    }
+
+    @Inject(method = "onVehicleMove", at = @At("HEAD"))
+    private void dashboardmod$beforeVehicleMove(VehicleMoveC2SPacket packet, CallbackInfo ci) {
+        dashboardmod$begin(player.getRootVehicle());
+    }
+
+    @Inject(method = "onVehicleMove", at = @At("RETURN"))
+    private void dashboardmod$afterVehicleMove(VehicleMoveC2SPacket packet, CallbackInfo ci) {
+        Entity vehicle = player.getRootVehicle();
+        if (vehicle == player) {
+            dashboardmod$started = false; // dismounted while the packet was handled
+            return;
+        }
+        dashboardmod$end(vehicle);
+    }
+
+    @Unique
+    private void dashboardmod$begin(Entity moving) {
+        // The handler first runs on the network thread only to reschedule itself; that pass never returns normally
+        if (!player.getServer().isOnThread()) return;
+
+        dashboardmod$startX = moving.getX();
+        dashboardmod$startY = moving.getY();
+        dashboardmod$startZ = moving.getZ();
+        dashboardmod$started = true;
+    }
+
+    @Unique
+    private void dashboardmod$end(Entity moving) {
+        if (!dashboardmod$started) return;
+        dashboardmod$started = false;
+
+        double x = moving.getX();
+        double y = moving.getY();
+        double z = moving.getZ();
+        if (x == dashboardmod$startX && y == dashboardmod$startY && z == dashboardmod$startZ) return;
+
+        AntiCheatHelper.captureMovement(player,
+                new Vec3d(dashboardmod$startX, dashboardmod$startY, dashboardmod$startZ), new Vec3d(x, y, z));
+    }
+}